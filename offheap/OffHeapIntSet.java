@@ -0,0 +1,249 @@
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+
+// Open-addressing int set whose slots live outside the Java heap, in a
+// MemorySegment. The GC never scans or copies the table, so very large sets
+// don't need a matching -Xmx and don't lengthen pauses.
+//
+// Layout and probing follow HashTableQuadraticInt (power-of-two capacity,
+// triangular probing, EMPTY/TOMB sentinels), with long indices so the table can
+// grow past 2^31 slots, and growth/compaction like HashTableQuadratic.
+//
+// Lifetime is explicit: every table generation owns an Arena that is closed as
+// soon as the table is replaced, and close() frees the last one. The arenas are
+// shared so a set wrapped in IntSets.synchronizedSet works from any thread.
+//
+// java.lang.foreign is a preview API in Java 21 - this source root compiles and
+// runs with --enable-preview; the rest of the tree doesn't need it.
+class OffHeapIntSet implements IntSet {
+    static final int EMPTY = 0;
+    static final int TOMB = Integer.MIN_VALUE;
+    static final double DEFAULT_MAX_LOAD = 0.5;
+    static final long DEFAULT_CAPACITY = 16;
+
+    private static final ValueLayout.OfInt SLOT = ValueLayout.JAVA_INT;
+
+    private Arena arena;
+    private MemorySegment table;
+    private long capacity;
+    private long mask;
+    private long used;      // keys + tombstones in the table
+    private long tombs;
+    private int size;
+
+    private final double maxLoad;
+    private int resizes;
+
+    // Keys that collide with a sentinel are tracked out of band
+    private boolean hasEmptyKey;
+    private boolean hasTombKey;
+
+    public OffHeapIntSet() {
+        this(DEFAULT_CAPACITY, DEFAULT_MAX_LOAD);
+    }
+
+    public OffHeapIntSet(long expected) {
+        this((long) Math.ceil(expected / DEFAULT_MAX_LOAD), DEFAULT_MAX_LOAD);
+    }
+
+    public OffHeapIntSet(long capacity, double maxLoad) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Table size must be positive");
+        }
+
+        if (!(maxLoad > 0 && maxLoad < 1)) {
+            throw new IllegalArgumentException("Max load factor must be in (0, 1)");
+        }
+
+        this.maxLoad = maxLoad;
+        allocate(Long.highestOneBit(Math.max(2, capacity - 1)) << 1);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public long capacity() {
+        return capacity;
+    }
+
+    public int resizes() {
+        return resizes;
+    }
+
+    // Off-heap slot bytes - not on the Java heap, so heap measurements miss them
+    public long memoryBytes() {
+        return table.byteSize();
+    }
+
+    // Frees the native memory; the set must not be used afterwards
+    public void close() {
+        if (arena != null) {
+            arena.close();
+            arena = null;
+        }
+    }
+
+    // Fibonacci hashing - the high bits of the product are well mixed
+    private long h(int key) {
+        long x = key * 0x9E37_79B9_7F4A_7C15L;
+        return (x ^ (x >>> 32)) & mask;
+    }
+
+    private void allocate(long cap) {
+        arena = Arena.ofShared();
+        table = arena.allocate(SLOT.byteSize() * cap, SLOT.byteAlignment());   // zeroed = all EMPTY
+        capacity = cap;
+        mask = cap - 1;
+        used = 0;
+        tombs = 0;
+    }
+
+    public void insert(int key) {
+        if (key == EMPTY || key == TOMB) {
+            boolean had = key == EMPTY ? hasEmptyKey : hasTombKey;
+            hasEmptyKey |= key == EMPTY;
+            hasTombKey |= key == TOMB;
+            size += had ? 0 : 1;
+            return;
+        }
+
+        if (used + 1 > maxLoad * capacity) {
+            if (find(key) != -1) {
+                return;
+            }
+
+            // Mostly tombstones - rebuild at the same size instead of doubling
+            rehash(2 * tombs >= used ? capacity : 2 * capacity);
+        }
+
+        long idx = h(key);
+        long firstTomb = -1;
+
+        for (long j = 1; j <= capacity; j++) {
+            int v = table.getAtIndex(SLOT, idx);
+
+            if (v == EMPTY) {
+                if (firstTomb != -1) {
+                    idx = firstTomb;
+                    tombs--;
+                } else {
+                    used++;
+                }
+
+                table.setAtIndex(SLOT, idx, key);
+                size++;
+                return;
+            }
+
+            if (v == key) {
+                return;
+            }
+
+            if (v == TOMB && firstTomb == -1) {
+                firstTomb = idx;
+            }
+
+            idx = (idx + j) & mask;
+        }
+
+        if (firstTomb != -1) {
+            table.setAtIndex(SLOT, firstTomb, key);
+            tombs--;
+            size++;
+            return;
+        }
+
+        throw new IllegalStateException("Hash table is full");
+    }
+
+    public boolean contains(int key) {
+        if (key == EMPTY) {
+            return hasEmptyKey;
+        }
+
+        if (key == TOMB) {
+            return hasTombKey;
+        }
+
+        return find(key) != -1;
+    }
+
+    public boolean remove(int key) {
+        if (key == EMPTY || key == TOMB) {
+            boolean had = key == EMPTY ? hasEmptyKey : hasTombKey;
+
+            if (key == EMPTY) {
+                hasEmptyKey = false;
+            } else {
+                hasTombKey = false;
+            }
+
+            size -= had ? 1 : 0;
+            return had;
+        }
+
+        long idx = find(key);
+
+        if (idx == -1) {
+            return false;
+        }
+
+        table.setAtIndex(SLOT, idx, TOMB);
+        tombs++;
+        size--;
+        return true;
+    }
+
+    // Slot index of key, or -1
+    private long find(int key) {
+        long idx = h(key);
+
+        for (long j = 1; j <= capacity; j++) {
+            int v = table.getAtIndex(SLOT, idx);
+
+            if (v == key) {
+                return idx;
+            }
+
+            if (v == EMPTY) {
+                return -1;
+            }
+
+            idx = (idx + j) & mask;
+        }
+
+        return -1;
+    }
+
+    // Copies every live key into a new segment of newCap slots, then frees the
+    // old one right away rather than waiting for a GC.
+    private void rehash(long newCap) {
+        Arena oldArena = arena;
+        MemorySegment old = table;
+        long oldCap = capacity;
+
+        allocate(newCap);
+
+        for (long i = 0; i < oldCap; i++) {
+            int v = old.getAtIndex(SLOT, i);
+
+            if (v == EMPTY || v == TOMB) {
+                continue;
+            }
+
+            long idx = h(v);
+
+            for (long j = 1; table.getAtIndex(SLOT, idx) != EMPTY; j++) {
+                idx = (idx + j) & mask;
+            }
+
+            table.setAtIndex(SLOT, idx, v);
+            used++;
+        }
+
+        oldArena.close();
+        resizes++;
+    }
+}
@@ -0,0 +1,16 @@
+// Registers OffHeapIntSet as "offheap" through the IntSetProvider ServiceLoader
+// hook. It lives in its own source root because java.lang.foreign is a preview
+// API in Java 21; the core tree builds with plain javac without it.
+public class OffHeapIntSetProvider implements IntSetProvider {
+    public String name() {
+        return "offheap";
+    }
+
+    public String label() {
+        return "Off-heap int[] (MemorySegment)";
+    }
+
+    public IntSet create(Benchmark.ScaleCfg cfg) {
+        return new OffHeapIntSet(cfg.N);
+    }
+}
@@ -1,25 +1,279 @@
-class AVLTree {
+import java.util.Arrays;
+import java.util.Map;
+import java.util.OptionalInt;
+import java.util.function.IntConsumer;
+
+// AVL tree augmented with subtree sizes, so order statistics (rank, select,
+// countRange) take O(log n) instead of an in-order walk.
+class AVLTree implements IntSet {
     static class Node {
         int key;
         Node left, right;
         int height;
-        
+        int count;      // nodes in this subtree, including this one
+
         Node(int k) {
             key = k;
             height = 1;
+            count = 1;
         }
     }
     
     private Node root;
+    private int size;
+
+    // Reused by forEachInRange and containsAll so scans don't allocate; grown to
+    // the height
+    private Node[] stack = new Node[32];
+    private long[] stackHi = new long[32];
+    private long[] batchOrder = new long[0];
+    private long rotations;
+    private final Metrics insertRotations = Metrics.create();
 
     public void insert(int key) {
+        long before = rotations;
         root = insert(root, key);
+
+        if (Metrics.ENABLED) {
+            insertRotations.record(rotations - before);
+        }
     }
     
     public boolean contains(int key) {
         return contains(root, key);
     }
 
+    // Finger search over the batch in key order: each lookup climbs from the
+    // previous key's node only as far as needed (to the lowest ancestor whose
+    // key range still covers the new key) and descends from there, so nearby
+    // keys share most of their path. Unsorted batches are sorted first, as
+    // (key, position) pairs so the answers land in the caller's order.
+    public void containsAll(int[] keys, int from, int to, boolean[] out) {
+        int n = to - from;
+
+        if (batchOrder.length < n) {
+            batchOrder = new long[n];
+        }
+
+        boolean sorted = true;
+
+        for (int i = from; i < to; i++) {
+            batchOrder[i - from] = ((long) keys[i] << 32) | (i - from);
+            sorted &= i == from || keys[i - 1] <= keys[i];
+        }
+
+        if (!sorted) {
+            Arrays.sort(batchOrder, 0, n);
+        }
+
+        ensureStack();
+
+        // stack[t] is a node on the current path, stackHi[t] the exclusive upper
+        // bound of its subtree's keys (keys only grow, so lower bounds never fail)
+        int top = 0, deepest = 0;
+
+        for (int b = 0; b < n; b++) {
+            int k = (int) (batchOrder[b] >> 32);
+            int i = from + (int) batchOrder[b];
+
+            while (top > 0 && k >= stackHi[top - 1]) {
+                top--;
+            }
+
+            Node x = root;
+            long hi = Long.MAX_VALUE;
+
+            if (top > 0) {
+                top--;
+                x = stack[top];
+                hi = stackHi[top];
+            }
+
+            boolean found = false;
+
+            while (x != null) {
+                stack[top] = x;
+                stackHi[top] = hi;
+                top++;
+
+                if (k < x.key) {
+                    hi = x.key;
+                    x = x.left;
+                } else if (k > x.key) {
+                    x = x.right;
+                } else {
+                    found = true;
+                    break;
+                }
+            }
+
+            out[i] = found;
+            deepest = Math.max(deepest, top);
+        }
+
+        Arrays.fill(stack, 0, deepest, null);
+    }
+
+    // Sorts the batch (already sorted input is detected and used as is), merges in
+    // the keys already in the tree and builds a perfectly balanced tree bottom-up:
+    // O(n) after the sort, with no rotations.
+    public void bulkLoad(int[] keys) {
+        int[] sorted = IntSets.sortedUnique(keys);
+
+        if (root != null) {
+            int[] existing = new int[size];
+            inOrder(root, existing, 0);
+            sorted = IntSets.mergeSorted(existing, sorted);
+        }
+
+        root = build(sorted, 0, sorted.length);
+        size = sorted.length;
+    }
+
+    public void insertAll(int[] keys) {
+        bulkLoad(keys);
+    }
+
+    public boolean remove(int key) {
+        int before = size;
+        root = remove(root, key);
+        return size < before;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    // 32 bytes per Node (header, key, height, count, two references)
+    public long memoryBytes() {
+        return 32L * size;
+    }
+
+    // Rotations per insert() (a double rotation counts as two)
+    public Map<String, Metrics> metrics() {
+        return insertRotations == null ? Map.of() : Map.of("rotations/insert", insertRotations);
+    }
+
+    // Number of keys smaller than key
+    public int rank(int key) {
+        return countBelow(key, false);
+    }
+
+    // The i-th smallest key, 0-based
+    public int select(int i) {
+        if (i < 0 || i >= size) {
+            throw new IndexOutOfBoundsException("Index " + i + " out of range for size " + size);
+        }
+
+        Node n = root;
+
+        while (true) {
+            int l = cnt(n.left);
+
+            if (i < l) {
+                n = n.left;
+            } else if (i > l) {
+                i -= l + 1;
+                n = n.right;
+            } else {
+                return n.key;
+            }
+        }
+    }
+
+    // Number of keys in [lo, hi]
+    public int countRange(int lo, int hi) {
+        if (lo > hi) {
+            return 0;
+        }
+
+        return countBelow(hi, true) - countBelow(lo, false);
+    }
+
+    // Largest key <= key
+    public OptionalInt floor(int key) {
+        Node n = root;
+        Node best = null;
+
+        while (n != null) {
+            if (n.key == key) {
+                return OptionalInt.of(key);
+            }
+
+            if (n.key < key) {
+                best = n;
+                n = n.right;
+            } else {
+                n = n.left;
+            }
+        }
+
+        return best == null ? OptionalInt.empty() : OptionalInt.of(best.key);
+    }
+
+    // Smallest key >= key
+    public OptionalInt ceiling(int key) {
+        Node n = root;
+        Node best = null;
+
+        while (n != null) {
+            if (n.key == key) {
+                return OptionalInt.of(key);
+            }
+
+            if (n.key > key) {
+                best = n;
+                n = n.left;
+            } else {
+                n = n.right;
+            }
+        }
+
+        return best == null ? OptionalInt.empty() : OptionalInt.of(best.key);
+    }
+
+    // Passes every key in [lo, hi] to action in ascending order. Iterative with an
+    // explicit stack of at most height() nodes, reused between calls, so a scan
+    // allocates nothing. action must not modify this tree or start another scan of it.
+    public void forEachInRange(int lo, int hi, IntConsumer action) {
+        ensureStack();
+
+        Node[] st = stack;
+        int top = 0;
+        Node n = root;
+
+        while (true) {
+            // Left spine of n, skipping subtrees that lie entirely below lo
+            while (n != null) {
+                if (n.key < lo) {
+                    n = n.right;
+                } else {
+                    st[top++] = n;
+                    n = n.left;
+                }
+            }
+
+            if (top == 0) {
+                return;
+            }
+
+            n = st[--top];
+            st[top] = null;
+
+            if (n.key > hi) {
+                // Drop the rest so the reused stack doesn't keep nodes reachable
+                while (top > 0) {
+                    st[--top] = null;
+                }
+
+                return;
+            }
+
+            action.accept(n.key);
+            n = n.right;
+        }
+    }
+
     public void getAVLKeyHeight(int key) {
         Node n = findNode(root, key);
 
@@ -34,8 +288,37 @@ class AVLTree {
         return n == null ? 0 : n.height;
     }
 
+    private void ensureStack() {
+        if (stack.length < h(root)) {
+            stack = new Node[2 * h(root)];
+            stackHi = new long[stack.length];
+        }
+    }
+
+    private static int cnt(Node n) {
+        return n == null ? 0 : n.count;
+    }
+
+    // Keys < key, or <= key when inclusive
+    private int countBelow(int key, boolean inclusive) {
+        Node n = root;
+        int below = 0;
+
+        while (n != null) {
+            if (n.key < key || (inclusive && n.key == key)) {
+                below += cnt(n.left) + 1;
+                n = n.right;
+            } else {
+                n = n.left;
+            }
+        }
+
+        return below;
+    }
+
     private Node insert(Node n, int key) {
         if (n == null) {
+            size++;
             return new Node(key);
         }
 
@@ -51,6 +334,75 @@ class AVLTree {
         return balance(n);
     }
 
+    // Balanced subtree over keys[lo, hi)
+    private Node build(int[] keys, int lo, int hi) {
+        if (lo >= hi) {
+            return null;
+        }
+
+        int mid = (lo + hi) >>> 1;
+        Node n = new Node(keys[mid]);
+        n.left = build(keys, lo, mid);
+        n.right = build(keys, mid + 1, hi);
+        update(n);
+        return n;
+    }
+
+    private int inOrder(Node n, int[] out, int i) {
+        if (n == null) {
+            return i;
+        }
+
+        i = inOrder(n.left, out, i);
+        out[i++] = n.key;
+        return inOrder(n.right, out, i);
+    }
+
+    private Node remove(Node n, int key) {
+        if (n == null) {
+            return null;
+        }
+
+        if (key < n.key) {
+            n.left = remove(n.left, key);
+        } else if (key > n.key) {
+            n.right = remove(n.right, key);
+        } else {
+            size--;
+
+            if (n.left == null) {
+                return n.right;
+            }
+
+            if (n.right == null) {
+                return n.left;
+            }
+
+            // Two children - take the in-order successor's key and delete it below
+            Node s = n.right;
+
+            while (s.left != null) {
+                s = s.left;
+            }
+
+            n.key = s.key;
+            n.right = removeMin(n.right);
+        }
+
+        update(n);
+        return balance(n);
+    }
+
+    private Node removeMin(Node n) {
+        if (n.left == null) {
+            return n.right;
+        }
+
+        n.left = removeMin(n.left);
+        update(n);
+        return balance(n);
+    }
+
     private boolean contains(Node n, int key) {
         while (n != null) {
             
@@ -83,6 +435,7 @@ class AVLTree {
 
     private void update(Node n) {
         n.height = 1 + Math.max(h(n.left), h(n.right));
+        n.count = 1 + cnt(n.left) + cnt(n.right);
     }
 
     private int bf(Node n) {
@@ -95,6 +448,10 @@ class AVLTree {
         x.right = y;
         y.left = T2;
         update(y); update(x);
+
+        if (Metrics.ENABLED) {
+            rotations++;
+        }
         
         return x;
     }
@@ -105,6 +462,10 @@ class AVLTree {
         y.left = x;
         x.right = T2;
         update(x); update(y);
+
+        if (Metrics.ENABLED) {
+            rotations++;
+        }
         
         return y;
     }
@@ -0,0 +1,280 @@
+import java.util.*;
+
+// AVL tree without Node objects. Node i lives in key[i], left[i], right[i] and
+// height[i]; index 0 is the null node (height 0), so child links are plain ints
+// and the GC only ever sees four arrays. Removed nodes go on a free list
+// threaded through left[].
+class AVLTreeFlat implements IntSet {
+    static final int DEFAULT_CAPACITY = 16;
+
+    private int[] key;
+    private int[] left;
+    private int[] right;
+    private int[] height;
+
+    private int root;
+    private int size;
+    private int top = 1;    // next never-used index
+    private int free;       // head of the free list, 0 if empty
+
+    public AVLTreeFlat() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public AVLTreeFlat(int capacity) {
+        int cap = Math.max(2, capacity + 1);
+        key = new int[cap];
+        left = new int[cap];
+        right = new int[cap];
+        height = new int[cap];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    // Four int[] pools (16-byte array headers), including unused capacity
+    public long memoryBytes() {
+        return 4 * (16L + 4L * key.length);
+    }
+
+    public void insert(int k) {
+        root = insert(root, k);
+    }
+
+    public boolean contains(int k) {
+        int n = root;
+
+        while (n != 0) {
+            if (k < key[n]) {
+                n = left[n];
+            } else if (k > key[n]) {
+                n = right[n];
+            } else {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    public boolean remove(int k) {
+        int before = size;
+        root = remove(root, k);
+        return size < before;
+    }
+
+    // Same bottom-up build as AVLTree.bulkLoad, into freshly packed arrays
+    public void bulkLoad(int[] keys) {
+        int[] sorted = IntSets.sortedUnique(keys);
+
+        if (root != 0) {
+            int[] existing = new int[size];
+            inOrder(root, existing, 0);
+            sorted = IntSets.mergeSorted(existing, sorted);
+        }
+
+        int cap = Math.max(2, sorted.length + 1);
+        key = new int[cap];
+        left = new int[cap];
+        right = new int[cap];
+        height = new int[cap];
+        top = 1;
+        free = 0;
+
+        root = build(sorted, 0, sorted.length);
+        size = sorted.length;
+    }
+
+    public void insertAll(int[] keys) {
+        bulkLoad(keys);
+    }
+
+    public void getAVLKeyHeight(int k) {
+        int n = root;
+
+        while (n != 0 && key[n] != k) {
+            n = k < key[n] ? left[n] : right[n];
+        }
+
+        if (n == 0) {
+            System.out.println("Key " + k + " not found in AVL tree.");
+        } else {
+            System.out.println(height[n]);
+        }
+    }
+
+    private int newNode(int k) {
+        int n;
+
+        if (free != 0) {
+            n = free;
+            free = left[n];
+        } else {
+            if (top == key.length) {
+                int cap = (int) Math.min(Integer.MAX_VALUE - 8, 2L * key.length);
+                key = Arrays.copyOf(key, cap);
+                left = Arrays.copyOf(left, cap);
+                right = Arrays.copyOf(right, cap);
+                height = Arrays.copyOf(height, cap);
+            }
+
+            n = top++;
+        }
+
+        key[n] = k;
+        left[n] = 0;
+        right[n] = 0;
+        height[n] = 1;
+        return n;
+    }
+
+    private void freeNode(int n) {
+        left[n] = free;
+        free = n;
+    }
+
+    // Child links are assigned after the recursive call returns: newNode() may
+    // have replaced the arrays, and left[n] = insert(...) would write to the old one.
+    private int insert(int n, int k) {
+        if (n == 0) {
+            size++;
+            return newNode(k);
+        }
+
+        if (k < key[n]) {
+            int l = insert(left[n], k);
+            left[n] = l;
+        } else if (k > key[n]) {
+            int r = insert(right[n], k);
+            right[n] = r;
+        } else {
+            return n;
+        }
+
+        update(n);
+        return balance(n);
+    }
+
+    private int remove(int n, int k) {
+        if (n == 0) {
+            return 0;
+        }
+
+        if (k < key[n]) {
+            int l = remove(left[n], k);
+            left[n] = l;
+        } else if (k > key[n]) {
+            int r = remove(right[n], k);
+            right[n] = r;
+        } else {
+            size--;
+
+            if (left[n] == 0 || right[n] == 0) {
+                int child = left[n] != 0 ? left[n] : right[n];
+                freeNode(n);
+                return child;
+            }
+
+            // Two children - take the in-order successor's key and delete it below
+            int s = right[n];
+
+            while (left[s] != 0) {
+                s = left[s];
+            }
+
+            key[n] = key[s];
+            int r = removeMin(right[n]);
+            right[n] = r;
+        }
+
+        update(n);
+        return balance(n);
+    }
+
+    private int removeMin(int n) {
+        if (left[n] == 0) {
+            int r = right[n];
+            freeNode(n);
+            return r;
+        }
+
+        int l = removeMin(left[n]);
+        left[n] = l;
+        update(n);
+        return balance(n);
+    }
+
+    // Balanced subtree over keys[lo, hi)
+    private int build(int[] keys, int lo, int hi) {
+        if (lo >= hi) {
+            return 0;
+        }
+
+        int mid = (lo + hi) >>> 1;
+        int n = newNode(keys[mid]);
+        int l = build(keys, lo, mid);
+        int r = build(keys, mid + 1, hi);
+        left[n] = l;
+        right[n] = r;
+        update(n);
+        return n;
+    }
+
+    private int inOrder(int n, int[] out, int i) {
+        if (n == 0) {
+            return i;
+        }
+
+        i = inOrder(left[n], out, i);
+        out[i++] = key[n];
+        return inOrder(right[n], out, i);
+    }
+
+    private void update(int n) {
+        height[n] = 1 + Math.max(height[left[n]], height[right[n]]);
+    }
+
+    private int bf(int n) {
+        return height[left[n]] - height[right[n]];
+    }
+
+    private int rotateRight(int y) {
+        int x = left[y];
+        int T2 = right[x];
+        right[x] = y;
+        left[y] = T2;
+        update(y); update(x);
+
+        return x;
+    }
+
+    private int rotateLeft(int x) {
+        int y = right[x];
+        int T2 = left[y];
+        left[y] = x;
+        right[x] = T2;
+        update(x); update(y);
+
+        return y;
+    }
+
+    private int balance(int n) {
+        int balance = bf(n);
+
+        if (balance > 1) {
+            if (bf(left[n]) < 0) {
+                left[n] = rotateLeft(left[n]);
+            }
+            return rotateRight(n);
+
+        } else if (balance < -1) {
+            if (bf(right[n]) > 0) {
+                right[n] = rotateRight(right[n]);
+            }
+            return rotateLeft(n);
+        }
+
+        return n;
+    }
+}
@@ -1,7 +1,14 @@
 import java.io.*;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.ref.Reference;
 import java.nio.file.*;
 import java.util.*;
-import java.util.concurrent.TimeUnit;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.IntFunction;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
 
 public class Benchmark {
 
@@ -17,17 +24,122 @@ public class Benchmark {
             this.mQuadratic = mQuadratic;
             this.iter = iter;
         }
+
+        // Scale for an arbitrary N, tables sized for the target load factors
+        // (defaults give the fixed scales' ratios: ~0.83N buckets for chaining,
+        // ~2N slots for quadratic). Prime sizes for the modulo-hashed tables; the
+        // power-of-two engines round these up themselves. No key files.
+        static ScaleCfg forN(int n) {
+            return new ScaleCfg(String.format("%,d", n), n, tableSize(n, CHAIN_LOAD), tableSize(n, PROBE_LOAD), 0);
+        }
+
+        static int tableSize(int n, double load) {
+            long m = (long) Math.ceil(n / load);
+            return HashTableQuadratic.nextPrime((int) Math.max(2, Math.min(m, Integer.MAX_VALUE - 1024)));
+        }
     }
 
+    // Target load factors for tables sized from N: keys per chaining bucket, and
+    // the filled fraction of the open-addressing tables
+    static final double CHAIN_LOAD = Double.parseDouble(System.getProperty("chainLoad", "1.2"));
+    static final double PROBE_LOAD = Double.parseDouble(System.getProperty("probeLoad", "0.5"));
+
     static final ScaleCfg SMALL  = new ScaleCfg("1,000",     1_000,     928,     2_003,    1);
     static final ScaleCfg MEDIUM = new ScaleCfg("10,000",   10_000,   8_329,    20_011,   2);
     static final ScaleCfg LARGE  = new ScaleCfg("100,000", 100_000,  83_329,   200_003,   3);
 
-    static final List<ScaleCfg> SCALES = Arrays.asList(SMALL, MEDIUM, LARGE);
+    // -Dscales=1000,250k,10M or -Dscales=@file (N per line or comma separated,
+    // # starts a comment). Unset keeps the three fixed scales above.
+    static final List<ScaleCfg> SCALES = scales(System.getProperty("scales"));
+
+    static List<ScaleCfg> scales(String spec) {
+        if (spec == null) {
+            return Arrays.asList(SMALL, MEDIUM, LARGE);
+        }
+
+        String text = spec;
+
+        if (spec.startsWith("@")) {
+            try {
+                text = Files.readString(Paths.get(spec.substring(1))).replaceAll("#[^\\n]*", "");
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        List<ScaleCfg> out = new ArrayList<>();
+
+        for (String s : text.trim().split("[,\\s]+")) {
+            out.add(scaleFor(parseCount(s)));
+        }
+
+        return out;
+    }
+
+    // The fixed scales keep their table sizes and key files when N matches
+    static ScaleCfg scaleFor(int n) {
+        for (ScaleCfg c : Arrays.asList(SMALL, MEDIUM, LARGE)) {
+            if (c.N == n && CHAIN_LOAD == 1.2 && PROBE_LOAD == 0.5) {
+                return c;
+            }
+        }
+
+        return ScaleCfg.forN(n);
+    }
+
+    // "250000", "250k", "10M" or "1e6"
+    static int parseCount(String s) {
+        String t = s.trim().toLowerCase(Locale.ROOT);
+        long mult = 1;
+
+        if (t.endsWith("k")) {
+            mult = 1_000;
+        } else if (t.endsWith("m")) {
+            mult = 1_000_000;
+        }
+
+        if (mult > 1) {
+            t = t.substring(0, t.length() - 1);
+        }
+
+        long n = Math.round(Double.parseDouble(t) * mult);
+
+        if (n <= 0 || n > Integer.MAX_VALUE / 2) {
+            throw new IllegalArgumentException("Scale out of range: " + s);
+        }
+
+        return (int) n;
+    }
 
     // How many times to repeat each timed block to avoid "0 ms"
     static final int REPEATS = Integer.getInteger("repeats", 5);
 
+    // Threads mode: max thread count, % of ops that are inserts, time per run
+    static final int MAX_THREADS = Integer.getInteger("threads", Runtime.getRuntime().availableProcessors());
+    static final int WRITE_PERCENT = Integer.getInteger("writePercent", 10);
+
+    static final int DURATION_MS = Integer.getInteger("durationMs", 1000);
+
+    // Ordered mode: insert percentages for the read-heavy and write-heavy runs
+    static final int READ_HEAVY_WRITES = 5;
+    static final int WRITE_HEAVY_WRITES = 50;
+
+    // Churn mode: phases of N ops each, % of ops that are writes (half inserts,
+    // half removes), ops per latency sample
+    static final int CHURN_PHASES = Integer.getInteger("churnPhases", 10);
+    static final int CHURN_WRITES = Integer.getInteger("churnWrites", 50);
+    static final int CHURN_BATCH = 32;
+
+    // Engines to run, by IntSets name (-Dstructures=avl,quadint,...); each mode
+    // has its own default
+    static final String STRUCTURES = System.getProperty("structures");
+
+    // Per-operation latency pass after the timed loops (-Dlatency=false skips it)
+    static final boolean LATENCY = Boolean.parseBoolean(System.getProperty("latency", "true"));
+
+    // Longest chain length shown on its own in the chaining histogram
+    static final int CHAIN_HIST_MAX = 8;
+
     // Measurement helpers
     static class Measure {
         static long timeNanos(Runnable r) {
@@ -36,29 +148,49 @@ public class Benchmark {
             return System.nanoTime() - start;
         }
         
-        static long ms(long nanos) {
+        static long micros(long nanos) {
             return TimeUnit.NANOSECONDS.toMicros(nanos);
         }
-    }
 
-    // Key helpers
-    static List<Integer> readInts(Path path, int limit) throws IOException {
-        List<Integer> list = new ArrayList<>(limit);
-        
-        try (BufferedReader br = Files.newBufferedReader(path)) {
-            String line;
-            
-            while ((line = br.readLine()) != null && (limit <= 0 || list.size() < limit)) {
-                line = line.trim();
-                
-                if (line.isEmpty()) {
-                    continue;
-                }
+        static long mean(long[] v) {
+            long sum = 0;
+
+            for (long x : v) {
+                sum += x;
+            }
+
+            return v.length == 0 ? 0 : sum / v.length;
+        }
 
-                list.add(Integer.parseInt(line));
+        // Cost of one System.nanoTime() pair, subtracted from single-op timings
+        static final long TIMER_NANOS = timerOverhead();
+
+        private static long timerOverhead() {
+            long[] d = new long[10_001];
+
+            for (int i = 0; i < d.length; i++) {
+                long t0 = System.nanoTime();
+                d[i] = System.nanoTime() - t0;
+            }
+
+            Arrays.sort(d);
+            return d[d.length / 2];
+        }
+
+        // Nearest-rank percentile of an ascending array, p in [0, 100]
+        static long percentile(long[] sorted, double p) {
+            if (sorted.length == 0) {
+                return 0;
             }
+
+            int i = (int) Math.ceil(p / 100.0 * sorted.length) - 1;
+            return sorted[Math.max(0, Math.min(sorted.length - 1, i))];
         }
-        return list;
+    }
+
+    // Key helpers
+    static int[] readInts(Path path, int limit) throws IOException {
+        return KeyFile.read(path, limit);
     }
 
     static Optional<Path> findFile(String fileName) {
@@ -77,277 +209,1555 @@ public class Benchmark {
         return Optional.empty();
     }
 
-    static List<Integer> maybeLoadKeys(int iter, String kind, int limit) throws IOException {
+    // Key file names tried in order: binary (see KeyFile), then text. The
+    // iterN_<kind>_keys.txt files in the repo deliberately don't match - they
+    // hold fewer keys than their scale's N (iter3 has 76,097) drawn from
+    // [1, 1e6] - so a scale runs on generated keys unless files are supplied.
+    static final String[] KEY_FILE_PATTERNS = {"itr%d_%s_key.bin", "itr%d_%s_key.txt"};
+
+    static int[] maybeLoadKeys(int iter, String kind, int limit) throws IOException {
         // "insert" or "search"
-        String fname = String.format("itr%d_%s_key.txt", iter, kind);
-        Optional<Path> p = findFile(fname);
-        
-        if (p.isPresent()) {
-            return readInts(p.get(), limit);
+        for (String pattern : KEY_FILE_PATTERNS) {
+            Optional<Path> p = findFile(String.format(pattern, iter, kind));
+
+            if (p.isPresent()) {
+                return readInts(p.get(), limit);
+            }
         }
-        
+
         return null; // caller will fall back
     }
 
-    static List<Integer> randomUniqueInts(int n, long seed) {
-        List<Integer> nums = new ArrayList<>(n * 2);
-        
-        for (int i = 1; i <= n * 2; i++) {
-            nums.add(i);
+    // Key generator for every scale, chosen with -Dworkload (see Workload)
+    static Workload workload = new Workload.Uniform();
+
+    // Uniform workload: load keys if present, otherwise generate random.
+    // Every other workload always generates its keys.
+    static int[] insertKeysFor(ScaleCfg cfg) throws IOException {
+        int[] insertKeys = null;
+
+        if (workload instanceof Workload.Uniform) {
+            insertKeys = maybeLoadKeys(cfg.iter, "insert", cfg.N);
         }
-        
-        Collections.shuffle(nums, new Random(seed));
-        return new ArrayList<>(nums.subList(0, n));
+
+        if (insertKeys == null) {
+            insertKeys = workload.insertKeys(cfg.N, 100 + cfg.iter);
+        }
+
+        return insertKeys;
+    }
+
+    static int[] searchKeysFor(ScaleCfg cfg, int[] insertKeys) throws IOException {
+        int[] searchKeys = null;
+
+        if (workload instanceof Workload.Uniform) {
+            searchKeys = maybeLoadKeys(cfg.iter, "search", cfg.N);
+        }
+
+        if (searchKeys == null) {
+            searchKeys = workload.searchKeys(insertKeys, cfg.N, 200 + cfg.iter);
+        }
+
+        return searchKeys;
+    }
+
+    static int[] randomUniqueInts(int n, long seed) {
+        int[] nums = new int[n * 2];
+
+        for (int i = 0; i < nums.length; i++) {
+            nums[i] = i + 1;
+        }
+
+        // Fisher-Yates, same walk as Collections.shuffle
+        Random rnd = new Random(seed);
+
+        for (int i = nums.length; i > 1; i--) {
+            int j = rnd.nextInt(i);
+            int t = nums[i - 1];
+            nums[i - 1] = nums[j];
+            nums[j] = t;
+        }
+
+        return Arrays.copyOf(nums, n);
     }
 
-    static List<Integer> halfExistingHalfMissing(List<Integer> inserted, int n, long seed) {
+    static int[] halfExistingHalfMissing(int[] inserted, int n, long seed) {
         Random rnd = new Random(seed);
-        List<Integer> queries = new ArrayList<>(n);
-        
+        int[] queries = new int[n];
+
         for (int i = 0; i < n / 2; i++) {
-            queries.add(inserted.get(rnd.nextInt(inserted.size())));
+            queries[i] = inserted[rnd.nextInt(inserted.length)];
         }
-        
+
         int base = 1_000_000_000;
 
         for (int i = n/2; i < n; i++) {
-            queries.add(base + i);
+            queries[i] = base + i;
         }
-        
+
         return queries;
     }
 
     // Results
     static class Results {
-        long insertMs; long searchMs;
+        long insertMicros; long searchMicros;
+        final long[] insertNanos = new long[REPEATS];   // raw time of each repeat
+        final long[] searchNanos = new long[REPEATS];
+        final LatencyHistogram insertLat = new LatencyHistogram();
+        final LatencyHistogram searchLat = new LatencyHistogram();
+        Map<String, Metrics> metrics = Map.of();   // counters of the search set (-Dmetrics=true)
+        long retainedBytes;                          // object-graph size of the search set
+    }
+
+    // Times REPEATS rounds of loading every key into a fresh set with one
+    // insertAll call (bulk build for the trees, presized batch for the tables).
+    // Returns the nanoseconds of each round.
+    static long[] benchBulk(Supplier<? extends IntSet> make, int[] insertKeys) {
+        long[] nanos = new long[REPEATS];
+
+        for (int r = 0; r < REPEATS; r++) {
+            IntSet s = make.get();
+            nanos[r] = Measure.timeNanos(() -> s.insertAll(insertKeys));
+
+            // Verification - not timed
+            if (insertKeys.length > 0 && !s.contains(insertKeys[insertKeys.length - 1])) {
+                throw new IllegalStateException(s.getClass().getName() + " lost key " + insertKeys[insertKeys.length - 1]);
+            }
+
+            s.close();
+        }
+
+        return nanos;
+    }
+
+    // Times REPEATS rounds of inserting every key into a fresh set, then REPEATS
+    // rounds of looking up every search key in one built set.
+    static Results bench(Supplier<? extends IntSet> make, int[] insertKeys, int[] searchKeys) {
+        return bench(make, insertKeys, searchKeys, true);
     }
 
-    static Results benchAVL(List<Integer> insertKeys, List<Integer> searchKeys) {
+    // detail = false skips the latency pass and the object-graph walk (sweeps
+    // over large N only need the timed loops)
+    static Results bench(Supplier<? extends IntSet> make, int[] insertKeys, int[] searchKeys, boolean detail) {
         Results res = new Results();
-        // Inserts - repeat with fresh trees
-        long nanosIns = 0;
-        
+        // Inserts - repeat with fresh structures
         for (int r = 0; r < REPEATS; r++) {
-            AVLTree t = new AVLTree();
-            
-            nanosIns += Measure.timeNanos(() -> {
+            IntSet s = make.get();
+
+            res.insertNanos[r] = Measure.timeNanos(() -> {
                 for (int k : insertKeys) {
-                    t.insert(k);
+                    s.insert(k);
                 }
             });
+
+            s.close();
         }
 
-        res.insertMs = Measure.ms(nanosIns / REPEATS);
+        res.insertMicros = Measure.micros(Measure.mean(res.insertNanos));
 
         // Searches - build once, repeat queries
-        AVLTree t = new AVLTree();
-        
+        IntSet s = make.get();
+
         for (int k : insertKeys) {
-            t.insert(k);
+            s.insert(k);
         }
 
-        long nanosSearch = 0;
-        
         for (int r = 0; r < REPEATS; r++) {
-            nanosSearch += Measure.timeNanos(() -> {
+            res.searchNanos[r] = Measure.timeNanos(() -> {
+                long hits = 0;
+
                 for (int q : searchKeys) {
-                    t.contains(q);
+                    if (s.contains(q)) {
+                        hits++;
+                    }
                 }
+
+                sink.add(hits);
             });
         }
 
-        res.searchMs = Measure.ms(nanosSearch / REPEATS);
+        res.searchMicros = Measure.micros(Measure.mean(res.searchNanos));
+
+        // Latency - every op timed on its own in one extra pass, so the timer
+        // calls don't leak into the means above
+        if (LATENCY && detail) {
+            IntSet fresh = make.get();
+
+            for (int k : insertKeys) {
+                long t0 = System.nanoTime();
+                fresh.insert(k);
+                res.insertLat.record(System.nanoTime() - t0 - Measure.TIMER_NANOS);
+            }
+
+            fresh.close();
+            long hits = 0;
+
+            for (int q : searchKeys) {
+                long t0 = System.nanoTime();
+                boolean hit = s.contains(q);
+                res.searchLat.record(System.nanoTime() - t0 - Measure.TIMER_NANOS);
+                hits += hit ? 1 : 0;
+            }
+
+            sink.add(hits);
+        }
+
+        res.metrics = s.metrics();
+        res.retainedBytes = detail ? retainedBytes(s) : 0;
 
         // Verification - not timed
-        if (!insertKeys.isEmpty()) {
-            t.getAVLKeyHeight(insertKeys.get(0));
+        if (insertKeys.length > 0 && !s.contains(insertKeys[0])) {
+            throw new IllegalStateException(s.getClass().getName() + " lost key " + insertKeys[0]);
         }
 
+        s.close();
         return res;
     }
 
-    static Results benchSplay(List<Integer> insertKeys, List<Integer> searchKeys) {
-        Results res = new Results();
-        long nanosIns = 0;
-        
+    // Growable tables - start tiny so every scale goes through several resizes,
+    // time each insert on its own and keep the tail. Returns {p50, p99, max} in ns.
+    static long[] resizeLatency(int[] insertKeys, boolean chaining) {
+        long[] lat = new long[insertKeys.length];
+        long[] worst = new long[3];
+
         for (int r = 0; r < REPEATS; r++) {
-            SplayTree t = new SplayTree();
-            
-            nanosIns += Measure.timeNanos(() -> {
-                for (int k : insertKeys) {
-                    t.insert(k);
+            HashTableChaining c = chaining ? new HashTableChaining() : null;
+            HashTableQuadratic q = chaining ? null : new HashTableQuadratic();
+            int i = 0;
+
+            for (int k : insertKeys) {
+                long t0 = System.nanoTime();
+
+                if (chaining) {
+                    c.insert(k);
+                } else {
+                    q.insert(k);
                 }
-            });
+
+                lat[i++] = System.nanoTime() - t0;
+            }
+
+            // Report the best repeat so one-off JIT compiles don't dominate the tail
+            Arrays.sort(lat);
+            long[] cur = {Measure.percentile(lat, 50), Measure.percentile(lat, 99), lat[lat.length - 1]};
+
+            if (r == 0 || cur[2] < worst[2]) {
+                worst = cur;
+            }
         }
 
-        res.insertMs = Measure.ms(nanosIns / REPEATS);
+        return worst;
+    }
+
+    // Lookup results are folded into this so the JIT can't drop them
+    static final LongAdder sink = new LongAdder();
 
-        SplayTree t = new SplayTree();
-        
+    // Prefills half of [1, 2N], then every thread runs random inserts/lookups over
+    // the whole range for DURATION_MS. Returns total ops/sec.
+    static long mixedThroughput(IntSet set, int[] insertKeys, int threads, int writePercent)
+            throws InterruptedException {
         for (int k : insertKeys) {
-            t.insert(k);
+            set.insert(k);
         }
 
-        long nanosSearch = 0;
-        
-        for (int r = 0; r < REPEATS; r++) {
-            nanosSearch += Measure.timeNanos(() -> {
-                for (int q : searchKeys) {
-                    t.contains(q);
+        int range = 2 * insertKeys.length;
+        LongAdder ops = new LongAdder();
+        CountDownLatch start = new CountDownLatch(1);
+        Thread[] workers = new Thread[threads];
+
+        for (int t = 0; t < threads; t++) {
+            long seed = 300 + t;
+
+            workers[t] = new Thread(() -> {
+                SplittableRandom rnd = new SplittableRandom(seed);
+                long done = 0, hits = 0;
+
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
                 }
+
+                long deadline = System.nanoTime() + DURATION_MS * 1_000_000L;
+
+                // Check the clock once per 1024 ops to keep it out of the hot loop
+                while (System.nanoTime() < deadline) {
+                    for (int i = 0; i < 1024; i++) {
+                        int key = 1 + rnd.nextInt(range);
+
+                        if (rnd.nextInt(100) < writePercent) {
+                            set.insert(key);
+                        } else if (set.contains(key)) {
+                            hits++;
+                        }
+                    }
+
+                    done += 1024;
+                }
+
+                ops.add(done);
+                sink.add(hits);
             });
+            workers[t].start();
         }
 
-        res.searchMs = Measure.ms(nanosSearch / REPEATS);
-        return res;
+        long t0 = System.nanoTime();
+        start.countDown();
+
+        for (Thread w : workers) {
+            w.join();
+        }
+
+        long elapsed = System.nanoTime() - t0;
+        return ops.sum() * 1_000_000_000L / elapsed;
     }
 
-    static Results benchHashChaining(List<Integer> insertKeys, List<Integer> searchKeys, int m) {
-        Results res = new Results();
-        long nanosIns = 0;
-        
-        for (int r = 0; r < REPEATS; r++) {
-            HashTableChaining h = new HashTableChaining(m);
-            
-            nanosIns += Measure.timeNanos(() -> { 
-                for (int k : insertKeys) {
-                    h.insert(k);
-                }
-            });
+    // Prints kops/s of each set for 1, 2, 4, ... MAX_THREADS platform threads
+    static void threadScaling(List<IntSetProvider> sets, int writePercent) throws Exception {
+        List<Integer> counts = new ArrayList<>();
+
+        for (int t = 1; t < MAX_THREADS; t *= 2) {
+            counts.add(t);
         }
-        
-        res.insertMs = Measure.ms(nanosIns / REPEATS);
 
-        HashTableChaining h = new HashTableChaining(m);
-        
-        for (int k : insertKeys) {
-            h.insert(k);
+        counts.add(MAX_THREADS);
+
+        ScaleCfg cfg = SCALES.get(SCALES.size() - 1);
+        // Generated rather than loaded: workers draw from [1, 2 * prefill], so the
+        // prefill has to be half of exactly that range
+        int[] insertKeys = randomUniqueInts(cfg.N / 2, 100 + cfg.iter);
+        long[][] kops = new long[sets.size()][counts.size()];
+        String[] colNames = counts.stream().map(t -> t + (t == 1 ? " thread" : " threads")).toArray(String[]::new);
+
+        for (int i = 0; i < sets.size(); i++) {
+            for (int c = 0; c < counts.size(); c++) {
+                IntSet set = sets.get(i).create(cfg);
+                kops[i][c] = mixedThroughput(set, insertKeys, counts.get(c), writePercent) / 1000;
+                set.close();
+            }
         }
 
-        long nanosSearch = 0;
-        
-        for (int r = 0; r < REPEATS; r++) {
-            nanosSearch += Measure.timeNanos(() -> {
-                for (int q : searchKeys) {
-                    h.contains(q);
-                }
-            });
+        printTable(String.format("Mixed Workload Throughput, N=%s, %d%% inserts (kops/s)",
+            cfg.label, writePercent), kops, labels(sets), colNames);
+    }
+
+    // Threads mode - hash sets
+    static void runThreads() throws Exception {
+        threadScaling(structures("striped,sync:quadint,chm"), WRITE_PERCENT);
+    }
+
+    // Ordered mode - ordered sets, read-heavy then write-heavy
+    static void runOrdered() throws Exception {
+        List<IntSetProvider> sets = structures("skiplist,sync:avl,csls");
+
+        threadScaling(sets, READ_HEAVY_WRITES);
+        threadScaling(sets, WRITE_HEAVY_WRITES);
+    }
+
+    // -Dstructures if given, else the mode's default list
+    static List<IntSetProvider> structures(String modeDefault) {
+        return IntSets.parse(STRUCTURES != null ? STRUCTURES : modeDefault);
+    }
+
+    static String[] labels(List<IntSetProvider> sets) {
+        return sets.stream().map(IntSetProvider::label).toArray(String[]::new);
+    }
+
+    // Splay mode - each splay policy under uniform and skewed lookups
+    static void runSplayPolicies() throws Exception {
+        String[] policyNames = {"Splay always", "Splay p=1/8", "Splay depth > 2 log N"};
+        String[] colNames = SCALES.stream().map(s -> s.label).toArray(String[]::new);
+        long[][] ins = new long[policyNames.length][SCALES.size()];
+        long[][] uni = new long[policyNames.length][SCALES.size()];
+        long[][] hot = new long[policyNames.length][SCALES.size()];
+        int col = 0;
+
+        for (ScaleCfg cfg : SCALES) {
+            int[] insertKeys = insertKeysFor(cfg);
+            int[] uniform = searchKeysFor(cfg, insertKeys);
+            int[] skewed = new Workload.Hotspot(0.1, 0.9).searchKeys(insertKeys, cfg.N, 400 + cfg.iter);
+            int depth = 2 * (32 - Integer.numberOfLeadingZeros(cfg.N));
+
+            List<Supplier<SplayTree>> policies = Arrays.asList(
+                SplayTree::new,
+                () -> new SplayTree(SplayTree.Policy.PROBABILISTIC, 0.125, 0),
+                () -> new SplayTree(SplayTree.Policy.DEPTH, 1.0, depth));
+
+            for (int i = 0; i < policies.size(); i++) {
+                Results u = bench(policies.get(i), insertKeys, uniform);
+                Results h = bench(policies.get(i), insertKeys, skewed);
+                ins[i][col] = u.insertMicros;
+                uni[i][col] = u.searchMicros;
+                hot[i][col] = h.searchMicros;
+            }
+
+            col++;
         }
 
-        res.searchMs = Measure.ms(nanosSearch / REPEATS);
-        return res;
+        printTable("Splay Insertion Performance (Time in us)", ins, policyNames, colNames);
+        printTable("Splay Search, Uniform Access (Time in us)", uni, policyNames, colNames);
+        printTable("Splay Search, Skewed Access - 90% on hot 10% (Time in us)", hot, policyNames, colNames);
     }
 
-    static Results benchHashQuadratic(List<Integer> insertKeys, List<Integer> searchKeys, int m) {
-        Results res = new Results();
-        long nanosIns = 0;
-        
-        for (int r = 0; r < REPEATS; r++) {
-            HashTableQuadratic h = new HashTableQuadratic(m);
-            
-            nanosIns += Measure.timeNanos(() -> {
-                for (int k : insertKeys) {
-                    h.insert(k);
-                }
-            });
+    // {collections, total pause ms} summed over every collector
+    static long[] gcTotals() {
+        long[] t = new long[2];
+
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            t[0] += Math.max(0, gc.getCollectionCount());
+            t[1] += Math.max(0, gc.getCollectionTime());
         }
 
-        res.insertMs = Measure.ms(nanosIns / REPEATS);
+        return t;
+    }
+
+    // Heap in use after asking for a full collection (best effort - System.gc()
+    // is a hint, so run it twice)
+    static long usedHeapAfterGc() {
+        System.gc();
+        System.gc();
+        return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+    }
+
+    // Builds and queries one set. Returns {collections, pause ms, retained heap
+    // bytes, memoryBytes()}. Kept in its own frame so the previous engine's set
+    // is unreachable when the baseline heap is taken.
+    static long[] gcProfile(IntSetProvider p, ScaleCfg cfg, int[] insertKeys, int[] searchKeys) {
+        long heap0 = usedHeapAfterGc();
+        long[] gc0 = gcTotals();
+
+        IntSet s = p.create(cfg);
+        long hits = 0;
 
-        HashTableQuadratic h = new HashTableQuadratic(m);
-        
         for (int k : insertKeys) {
-            h.insert(k);
+            s.insert(k);
         }
 
-        long nanosSearch = 0;
-        
-        for (int r = 0; r < REPEATS; r++) {
-            nanosSearch += Measure.timeNanos(() -> {
-                for (int q : searchKeys) {
-                    h.contains(q);
-                }
-            });
+        for (int q : searchKeys) {
+            hits += s.contains(q) ? 1 : 0;
         }
 
-        res.searchMs = Measure.ms(nanosSearch / REPEATS);
+        long[] gc1 = gcTotals();
+        long heap1 = usedHeapAfterGc();
+        Reference.reachabilityFence(s);
+        sink.add(hits);
+
+        long[] g = {gc1[0] - gc0[0], gc1[1] - gc0[1], Math.max(0, heap1 - heap0), s.memoryBytes()};
+        s.close();
+        return g;
+    }
+
+    // GC mode - GC activity while each engine builds and serves a scale, and the
+    // Java heap it retains afterwards. Off-heap engines keep their slots out of
+    // the heap, so their retained heap stays flat while their size estimate grows.
+    static void runGc() throws Exception {
+        // offheap is only there if its source root was built, and only loads in preview mode
+        boolean offheap = IntSets.names().contains("offheap")
+            && ManagementFactory.getRuntimeMXBean().getInputArguments().contains("--enable-preview");
+        List<IntSetProvider> sets = structures(offheap ? "quadratic,quadint,offheap" : "quadratic,quadint");
+        String[] colNames = SCALES.stream().map(s -> s.label).toArray(String[]::new);
+        long[][] pause = new long[sets.size()][SCALES.size()];
+        long[][] count = new long[sets.size()][SCALES.size()];
+        long[][] heap = new long[sets.size()][SCALES.size()];
+        long[][] size = new long[sets.size()][SCALES.size()];
+        int col = 0;
+
+        for (ScaleCfg cfg : SCALES) {
+            int[] insertKeys = insertKeysFor(cfg);
+            int[] searchKeys = searchKeysFor(cfg, insertKeys);
 
-        // Verification helper
-        if (!insertKeys.isEmpty()) {
-            h.getQuadraticIndex(insertKeys.get(0));
+            for (int i = 0; i < sets.size(); i++) {
+                long[] g = gcProfile(sets.get(i), cfg, insertKeys, searchKeys);
+                count[i][col] = g[0];
+                pause[i][col] = g[1];
+                heap[i][col] = g[2] / 1024;
+                size[i][col] = g[3] / 1024;
+            }
+
+            col++;
         }
 
-        return res;
+        String[] names = labels(sets);
+
+        printTable("GC Pause Time During Build + Search (ms)", pause, names, colNames);
+        printTable("GC Collections During Build + Search", count, names, colNames);
+        printTable("Retained Java Heap After Build (KB)", heap, names, colNames);
+        printTable("Estimated Size, Heap or Off-heap (KB)", size, names, colNames);
     }
 
-    // Pretty table
-    static void printTable(String title, long[][] rows, String[] rowNames, String[] colNames) {
-        System.out.println();
-        System.out.println(title);
-        System.out.printf("%-24s", "Data Structure");
-        
-        for (String c : colNames) {
-            System.out.printf("%12s", c);
-        }
+    // JDK classes the object-graph walks could not open (see ObjectGraph)
+    static final Set<String> graphSkipped = new TreeSet<>();
 
-        System.out.println();
-        
-        for (int i = 0; i < rows.length; i++) {
-            System.out.printf("%-24s", rowNames[i]);
-            
-            for (long v : rows[i]) {
-                System.out.printf("%12d", v);
-            }
+    static long retainedBytes(IntSet s) {
+        ObjectGraph g = new ObjectGraph();
+        long bytes = g.sizeOf(s);
+        graphSkipped.addAll(g.skipped());
+        return bytes;
+    }
 
+    static void printGraphSkipped() {
+        if (!graphSkipped.isEmpty()) {
             System.out.println();
+            System.out.println("Object graph not followed into " + graphSkipped
+                + " - run with --add-opens java.base/java.util=ALL-UNNAMED to count them");
         }
     }
 
-    static Results[] runScale(ScaleCfg cfg, List<Integer> insertKeys, List<Integer> searchKeys) {
-        Results avl   = benchAVL(insertKeys, searchKeys);
-        Results splay = benchSplay(insertKeys, searchKeys);
-        Results chain = benchHashChaining(insertKeys, searchKeys, cfg.mChaining);
-        Results quad  = benchHashQuadratic(insertKeys, searchKeys, cfg.mQuadratic);
-        
-        return new Results[]{avl, splay, chain, quad};
-    }
+    // Builds one set and returns {object-graph bytes, heap delta after GC,
+    // memoryBytes()}. Kept in its own frame like gcProfile.
+    static long[] memoryProfile(IntSetProvider p, ScaleCfg cfg, int[] insertKeys) {
+        long heap0 = usedHeapAfterGc();
+        IntSet s = p.create(cfg);
 
-    // Main
-    public static void main(String[] args) throws Exception {
-        String[] dsNames = {"AVL Tree","Splay Tree","Hash Table (Chaining)","Hash Table (Quadratic)"};
-        String[] colNames = SCALES.stream().map(s -> s.label).toArray(String[]::new);
+        for (int k : insertKeys) {
+            s.insert(k);
+        }
 
-        long[][] ins = new long[4][SCALES.size()];
-        long[][] sea = new long[4][SCALES.size()];
+        long heap1 = usedHeapAfterGc();
+        long[] m = {retainedBytes(s), Math.max(0, heap1 - heap0), s.memoryBytes()};
+        Reference.reachabilityFence(s);
+        s.close();
+        return m;
+    }
 
+    // Memory mode - retained size of each engine after inserting a scale's keys,
+    // three ways: walking the object graph with a HotSpot layout model, the heap
+    // MXBean before/after a full GC, and the engine's own memoryBytes() estimate.
+    static void runMemory() throws Exception {
+        List<IntSetProvider> sets = structures(IntSets.DEFAULT_STRUCTURES);
+        String[] names = labels(sets);
+        String[] colNames = SCALES.stream().map(s -> s.label).toArray(String[]::new);
+        long[][] graphPerKey = new long[sets.size()][SCALES.size()];
+        long[][] heapPerKey = new long[sets.size()][SCALES.size()];
+        long[][] estPerKey = new long[sets.size()][SCALES.size()];
+        long[][] graphTotal = new long[sets.size()][SCALES.size()];
+        long[][] heapTotal = new long[sets.size()][SCALES.size()];
         int col = 0;
-        
+
         for (ScaleCfg cfg : SCALES) {
-            // Load keys if present, otherwise generate random
-            List<Integer> insertKeys = maybeLoadKeys(cfg.iter, "insert", cfg.N);
-            
-            if (insertKeys == null) {
-                insertKeys = randomUniqueInts(cfg.N, 100 + cfg.iter);
-            }
+            int[] insertKeys = insertKeysFor(cfg);
+            long n = Math.max(1, Arrays.stream(insertKeys).distinct().count());
 
-            List<Integer> searchKeys = maybeLoadKeys(cfg.iter, "search", cfg.N);
-            
-            if (searchKeys == null) {
-                searchKeys = halfExistingHalfMissing(insertKeys, cfg.N, 200 + cfg.iter);
+            for (int i = 0; i < sets.size(); i++) {
+                long[] m = memoryProfile(sets.get(i), cfg, insertKeys);
+                graphPerKey[i][col] = Math.round((double) m[0] / n);
+                heapPerKey[i][col] = Math.round((double) m[1] / n);
+                estPerKey[i][col] = Math.round((double) m[2] / n);
+                graphTotal[i][col] = m[0] / 1024;
+                heapTotal[i][col] = m[1] / 1024;
             }
 
-            Results[] r = runScale(cfg, insertKeys, searchKeys);
-            
-            for (int i = 0; i < 4; i++) {
-                ins[i][col] = r[i].insertMs;
-                sea[i][col] = r[i].searchMs;
+            col++;
+        }
+
+        printTable("Retained Size, Object Graph (bytes/key)", graphPerKey, names, colNames);
+        printTable("Retained Size, Heap Delta After GC (bytes/key)", heapPerKey, names, colNames);
+        printTable("Estimated Size, memoryBytes() (bytes/key)", estPerKey, names, colNames);
+        printTable("Retained Size, Object Graph (KB total)", graphTotal, names, colNames);
+        printTable("Retained Size, Heap Delta After GC (KB total)", heapTotal, names, colNames);
+        printGraphSkipped();
+
+        System.out.println();
+        System.out.printf("Layout: %d-byte references, %d-byte object headers%n", ObjectGraph.REF, ObjectGraph.HEADER);
+    }
+
+    // Sweep mode: N from SWEEP_FROM to SWEEP_TO, SWEEP_STEPS points per decade
+    static final int SWEEP_FROM = parseCount(System.getProperty("sweepFrom", "1000"));
+    static final int SWEEP_TO = parseCount(System.getProperty("sweepTo", "10M"));
+    static final int SWEEP_STEPS = Integer.getInteger("sweepSteps", 3);
+
+    static List<ScaleCfg> sweepScales() {
+        List<ScaleCfg> out = new ArrayList<>();
+        int last = 0;
+
+        for (int k = 0; ; k++) {
+            int n = (int) Math.round(SWEEP_FROM * Math.pow(10, (double) k / SWEEP_STEPS));
+
+            if (n > SWEEP_TO) {
+                break;
+            }
+
+            if (n != last) {
+                out.add(scaleFor(n));
+                last = n;
+            }
+        }
+
+        return out;
+    }
+
+    // Sweep mode - time per insert and per lookup over a geometric range of N.
+    // Plotted against log N the curves step up where the working set falls out
+    // of L1, L2, L3 and the TLB's reach. Columns are plain N so the -Dout CSV
+    // plots directly. Cells an engine can't fit in the heap read -1.
+    static void runSweep() throws Exception {
+        List<IntSetProvider> sets = structures(IntSets.DEFAULT_STRUCTURES);
+        List<ScaleCfg> scales = sweepScales();
+        String[] colNames = scales.stream().map(s -> String.valueOf(s.N)).toArray(String[]::new);
+        long[][] ins = new long[sets.size()][scales.size()];
+        long[][] sea = new long[sets.size()][scales.size()];
+        boolean outOfMemory = false;
+
+        // One untimed pass at the smallest N so the first column isn't measuring the JIT
+        ScaleCfg first = scales.get(0);
+        int[] warmKeys = insertKeysFor(first);
+
+        for (IntSetProvider p : sets) {
+            bench(() -> p.create(first), warmKeys, searchKeysFor(first, warmKeys), false);
+        }
+
+        for (int c = 0; c < scales.size(); c++) {
+            ScaleCfg cfg = scales.get(c);
+            int[] insertKeys = insertKeysFor(cfg);
+            int[] searchKeys = searchKeysFor(cfg, insertKeys);
+
+            for (int i = 0; i < sets.size(); i++) {
+                IntSetProvider p = sets.get(i);
+
+                try {
+                    Results r = bench(() -> p.create(cfg), insertKeys, searchKeys, false);
+                    ins[i][c] = Measure.mean(r.insertNanos) / insertKeys.length;
+                    sea[i][c] = Measure.mean(r.searchNanos) / searchKeys.length;
+                } catch (OutOfMemoryError e) {
+                    ins[i][c] = sea[i][c] = -1;
+                    outOfMemory = true;
+                }
+            }
+        }
+
+        String[] names = labels(sets);
+
+        printTable("Sweep - Insert Time per Op vs N (ns/op)", ins, names, colNames);
+        printTable("Sweep - Search Time per Op vs N (ns/op)", sea, names, colNames);
+
+        if (outOfMemory) {
+            System.out.println();
+            System.out.println("-1: out of heap at that N - raise -Xmx or lower -DsweepTo");
+        }
+    }
+
+    // Batch mode: containsAll batch sizes to sweep
+    static final String BATCH_SIZES = System.getProperty("batchSizes", "1,4,16,64,256,1024,4096");
+
+    // Batch mode - lookups through containsAll in batches of each size, against
+    // one contains() call per key. The hash tables interleave the probes of a
+    // batch; the trees answer a batch as a finger search in key order.
+    static void runBatch() throws Exception {
+        List<IntSetProvider> sets = structures("chaining,quadratic,quadint,avl");
+        int[] sizes = Arrays.stream(BATCH_SIZES.split(",")).mapToInt(s -> parseCount(s)).toArray();
+        String[] names = labels(sets);
+        String[] colNames = new String[sizes.length + 1];
+        colNames[0] = "contains";
+
+        for (int b = 0; b < sizes.length; b++) {
+            colNames[b + 1] = "batch " + sizes[b];
+        }
+
+        for (ScaleCfg cfg : SCALES) {
+            int[] insertKeys = insertKeysFor(cfg);
+            int[] searchKeys = searchKeysFor(cfg, insertKeys);
+            long[][] ns = new long[sets.size()][colNames.length];
+
+            for (int i = 0; i < sets.size(); i++) {
+                IntSet s = sets.get(i).create(cfg);
+                s.insertAll(insertKeys);
+                boolean[] out = new boolean[searchKeys.length];
+
+                ns[i][0] = perQuery(names[i] + " contains", searchKeys.length, -1, () -> {
+                    long hits = 0;
+
+                    for (int q : searchKeys) {
+                        hits += s.contains(q) ? 1 : 0;
+                    }
+
+                    return hits;
+                });
+
+                for (int b = 0; b < sizes.length; b++) {
+                    int size = sizes[b];
+
+                    ns[i][b + 1] = perQuery(names[i] + " containsAll", searchKeys.length, -1, () -> {
+                        for (int from = 0; from < searchKeys.length; from += size) {
+                            s.containsAll(searchKeys, from, Math.min(searchKeys.length, from + size), out);
+                        }
+
+                        return out[out.length - 1] ? 1 : 0;
+                    });
+
+                    // Verification - not timed
+                    for (int q = 0; q < searchKeys.length; q++) {
+                        if (out[q] != s.contains(searchKeys[q])) {
+                            throw new IllegalStateException(names[i] + " containsAll disagrees on " + searchKeys[q]);
+                        }
+                    }
+                }
+
+                s.close();
+            }
+
+            printTable("Batched Lookups, N=" + cfg.label + " (ns/lookup)", ns, names, colNames);
+        }
+    }
+
+    // Load mode: slots per table (rounded up to a power of two) and the load
+    // factors to fill it to
+    static final int LOAD_SLOTS = parseCount(System.getProperty("loadSlots", "1M"));
+    static final String LOAD_FACTORS = System.getProperty("loadFactors", "0.5,0.6,0.7,0.8,0.9,0.95");
+
+    // Load mode - the open-addressing engines filled to each load factor at the
+    // same capacity, then timed on lookups that all miss and lookups that all
+    // hit. Quadratic probing has to run every miss to an empty slot, Robin Hood
+    // stops at the first resident closer to home, cuckoo reads a fixed number of
+    // slots. A cuckoo layout that can't hold a load doubles instead; its cells
+    // read -1 there.
+    static void runLoad() throws Exception {
+        String[] names = {"Quadratic int[]", "Robin Hood int[]", "Cuckoo 2 ways x 1 slot",
+                          "Cuckoo 3 ways x 1 slot", "Cuckoo 2 ways x 4 slots"};
+        List<IntFunction<IntSet>> makers = List.of(
+            HashTableQuadraticInt::new,
+            HashTableRobinHood::new,
+            m -> new HashTableCuckoo(m, 2, 1),
+            m -> new HashTableCuckoo(m, 3, 1),
+            m -> new HashTableCuckoo(m, 2, 4));
+        double[] loads = Arrays.stream(LOAD_FACTORS.split(",")).mapToDouble(s -> Double.parseDouble(s.trim())).toArray();
+        int capacity = Integer.highestOneBit(Math.max(2, LOAD_SLOTS - 1)) << 1;
+        String[] colNames = Arrays.stream(loads).mapToObj(a -> String.format(Locale.ROOT, "%.2f", a)).toArray(String[]::new);
+
+        long[][] miss = new long[names.length][loads.length];
+        long[][] hit = new long[names.length][loads.length];
+        long[][] probes = new long[names.length][loads.length];
+
+        for (int c = 0; c < loads.length; c++) {
+            int n = (int) (loads[c] * capacity);
+            int q = Math.min(n, 1 << 18);
+            int[] keys = randomUniqueInts(n + q, 900 + c);
+            int[] hits = Arrays.copyOf(keys, q);
+            int[] misses = Arrays.copyOfRange(keys, n, n + q);
+
+            for (int i = 0; i < names.length; i++) {
+                IntSet s = makers.get(i).apply(capacity);
+
+                for (int j = 0; j < n; j++) {
+                    s.insert(keys[j]);
+                }
+
+                if (s instanceof HashTableCuckoo && ((HashTableCuckoo) s).rehashes() > 0) {
+                    miss[i][c] = hit[i][c] = probes[i][c] = -1;
+                    continue;
+                }
+
+                miss[i][c] = perQuery(names[i] + " misses", q, 0, () -> {
+                    long found = 0;
+
+                    for (int k : misses) {
+                        found += s.contains(k) ? 1 : 0;
+                    }
+
+                    return found;
+                });
+
+                hit[i][c] = perQuery(names[i] + " hits", q, q, () -> {
+                    long found = 0;
+
+                    for (int k : hits) {
+                        found += s.contains(k) ? 1 : 0;
+                    }
+
+                    return found;
+                });
+
+                long total = 0;
+
+                for (int k : misses) {
+                    total += probes(s, k);
+                }
+
+                probes[i][c] = 100 * total / q;
+            }
+        }
+
+        String at = String.format(", %,d slots", capacity);
+
+        printTable("Miss Latency by Load Factor" + at + " (ns/op)", miss, names, colNames);
+        printTable("Hit Latency by Load Factor" + at + " (ns/op)", hit, names, colNames);
+        printTable("Probes per 100 Misses by Load Factor" + at + " (slots)", probes, names, colNames);
+        System.out.println("-1: the layout can't hold that load; the table had to double.");
+    }
+
+    // Hash mode: keys per table. Adversarial patterns make key % m quadratic in N,
+    // so this stays small by default.
+    static final int HASH_N = parseCount(System.getProperty("hashN", "10000"));
+
+    // Hash mode - every HashStrategy on the chaining and quadratic tables under
+    // random keys and the structured patterns that defeat key % m: sequential
+    // IDs, a stride of 64, and a stride equal to the table size (one residue
+    // class). Reports probe length, build time and lookup time.
+    static void runHash() throws Exception {
+        ScaleCfg cfg = scaleFor(HASH_N);
+        int n = cfg.N;
+        String[] patterns = {"random", "sequential", "stride 64", "stride m"};
+        HashStrategy[] hashes = HashStrategy.values();
+        String[] names = new String[2 * hashes.length];
+        long[][] probes = new long[names.length][patterns.length];
+        long[][] build = new long[names.length][patterns.length];
+        long[][] lookup = new long[names.length][patterns.length];
+
+        for (int t = 0; t < 2; t++) {
+            boolean chaining = t == 0;
+            int m = chaining ? cfg.mChaining : cfg.mQuadratic;
+
+            // Chaining is sized for CHAIN_LOAD, above its default max load; let it
+            // run at that load so it never resizes and "stride m" stays one residue
+            double chainLoad = Math.max(HashTableChaining.DEFAULT_MAX_LOAD, (double) n / m);
+
+            for (int p = 0; p < patterns.length; p++) {
+                int[] keys;
+
+                switch (p) {
+                    case 0:  keys = randomUniqueInts(n, 700); break;
+                    case 1:  keys = new Workload.Sequential().insertKeys(n, 0); break;
+                    case 2:  keys = new Workload.Strided(64).insertKeys(n, 0); break;
+                    default: keys = new Workload.Strided(m).insertKeys(n, 0); break;
+                }
+
+                int[] searchKeys = halfExistingHalfMissing(keys, n, 800);
+
+                for (int s = 0; s < hashes.length; s++) {
+                    int row = t * hashes.length + s;
+                    HashStrategy hash = hashes[s];
+                    names[row] = (chaining ? "Chaining" : "Quadratic") + " - " + hash.name().toLowerCase(Locale.ROOT);
+
+                    Supplier<IntSet> make = chaining
+                        ? () -> new HashTableChaining(m, chainLoad, hash)
+                        : () -> new HashTableQuadratic(m, HashTableQuadratic.DEFAULT_MAX_LOAD, hash);
+
+                    IntSet set = make.get();
+                    long t0 = System.nanoTime();
+
+                    for (int k : keys) {
+                        set.insert(k);
+                    }
+
+                    build[row][p] = (System.nanoTime() - t0) / n;
+                    long total = 0;
+
+                    for (int q : searchKeys) {
+                        total += chaining ? ((HashTableChaining) set).probes(q) : ((HashTableQuadratic) set).probes(q);
+                    }
+
+                    probes[row][p] = 100 * total / searchKeys.length;
+                    lookup[row][p] = perQuery(names[row], searchKeys.length, -1, () -> {
+                        long hits = 0;
+
+                        for (int q : searchKeys) {
+                            hits += set.contains(q) ? 1 : 0;
+                        }
+
+                        return hits;
+                    });
+                }
+            }
+        }
+
+        String at = String.format(", N=%s", cfg.label);
+
+        printTable("Hash Functions - Probes per 100 Lookups" + at + " (slots or chain entries)", probes, names, patterns);
+        printTable("Hash Functions - Build" + at + " (ns/insert)", build, names, patterns);
+        printTable("Hash Functions - Lookup" + at + " (ns/op)", lookup, names, patterns);
+    }
+
+    // Range mode: queries per round, and range width as a percentage of the key span
+    static final int RANGE_QUERIES = Integer.getInteger("rangeQueries", 1000);
+    static final double RANGE_PERCENT = Double.parseDouble(System.getProperty("rangePercent", "1"));
+
+    // Mean ns per query over REPEATS rounds of `queries` queries. expected >= 0 is
+    // checked against every round's result (the number of keys found).
+    static long perQuery(String what, int queries, long expected, LongSupplier round) {
+        long nanos = 0;
+
+        for (int r = 0; r < REPEATS; r++) {
+            long[] result = new long[1];
+            nanos += Measure.timeNanos(() -> result[0] = round.getAsLong());
+
+            // Verification - not timed
+            if (expected >= 0 && result[0] != expected) {
+                throw new IllegalStateException(what + " counted " + result[0] + " keys, expected " + expected);
+            }
+
+            sink.add(result[0]);
+        }
+
+        return nanos / REPEATS / queries;
+    }
+
+    // Range mode - ordered queries on the augmented AVL tree (O(log n) counts,
+    // O(log n + k) scans) against what a hash table can do: visit every slot, or
+    // probe every value in the range.
+    static void runRange() throws Exception {
+        String[] names = {"AVL countRange", "AVL forEachInRange", "AVL rank", "AVL select",
+                          "Quadratic int[] - scan all slots", "Quadratic - scan all slots",
+                          "Quadratic int[] - contains per value"};
+        String[] colNames = SCALES.stream().map(s -> s.label).toArray(String[]::new);
+        long[][] ns = new long[names.length][SCALES.size()];
+        int q = RANGE_QUERIES;
+        int col = 0;
+
+        for (ScaleCfg cfg : SCALES) {
+            int[] keys = insertKeysFor(cfg);
+            AVLTree avl = new AVLTree();
+            HashTableQuadraticInt qi = new HashTableQuadraticInt(cfg.mQuadratic);
+            HashTableQuadratic qb = new HashTableQuadratic(cfg.mQuadratic);
+            int min = Integer.MAX_VALUE, max = Integer.MIN_VALUE;
+
+            for (int k : keys) {
+                avl.insert(k);
+                qi.insert(k);
+                qb.insert(k);
+                min = Math.min(min, k);
+                max = Math.max(max, k);
+            }
+
+            long span = (long) max - min + 1;
+            long width = Math.max(1, Math.round(span * RANGE_PERCENT / 100));
+            Random rnd = new Random(600 + cfg.iter);
+            int[] lo = new int[q], hi = new int[q], idx = new int[q];
+            long expected = 0;
+
+            for (int i = 0; i < q; i++) {
+                lo[i] = (int) (min + (long) (rnd.nextDouble() * span));
+                hi[i] = (int) Math.min(max, lo[i] + width - 1);
+                idx[i] = rnd.nextInt(avl.size());
+                expected += avl.countRange(lo[i], hi[i]);
+            }
+
+            ns[0][col] = perQuery(names[0], q, expected, () -> {
+                long c = 0;
+
+                for (int i = 0; i < q; i++) {
+                    c += avl.countRange(lo[i], hi[i]);
+                }
+
+                return c;
+            });
+
+            ns[1][col] = perQuery(names[1], q, expected, () -> {
+                long[] c = new long[1];
+
+                for (int i = 0; i < q; i++) {
+                    avl.forEachInRange(lo[i], hi[i], k -> c[0]++);
+                }
+
+                return c[0];
+            });
+
+            ns[2][col] = perQuery(names[2], q, -1, () -> {
+                long c = 0;
+
+                for (int i = 0; i < q; i++) {
+                    c += avl.rank(lo[i]);
+                }
+
+                return c;
+            });
+
+            ns[3][col] = perQuery(names[3], q, -1, () -> {
+                long c = 0;
+
+                for (int i = 0; i < q; i++) {
+                    c += avl.select(idx[i]);
+                }
+
+                return c;
+            });
+
+            ns[4][col] = perQuery(names[4], q, expected, () -> {
+                long[] c = new long[1];
+
+                for (int i = 0; i < q; i++) {
+                    int a = lo[i], b = hi[i];
+                    qi.forEach(k -> c[0] += k >= a && k <= b ? 1 : 0);
+                }
+
+                return c[0];
+            });
+
+            ns[5][col] = perQuery(names[5], q, expected, () -> {
+                long[] c = new long[1];
+
+                for (int i = 0; i < q; i++) {
+                    int a = lo[i], b = hi[i];
+                    qb.forEach(k -> c[0] += k >= a && k <= b ? 1 : 0);
+                }
+
+                return c[0];
+            });
+
+            ns[6][col] = perQuery(names[6], q, expected, () -> {
+                long c = 0;
+
+                for (int i = 0; i < q; i++) {
+                    for (long k = lo[i]; k <= hi[i]; k++) {
+                        c += qi.contains((int) k) ? 1 : 0;
+                    }
+                }
+
+                return c;
+            });
+
+            col++;
+        }
+
+        printTable(String.format("Range Queries, width %s%% of the key span (ns/query)", RANGE_PERCENT), ns, names, colNames);
+    }
+
+    // Lookups timed right after a cold start, while pages are still faulting in
+    static final int COLD_QUERIES = 1000;
+
+    // Persist mode - time from process-level "nothing loaded" to the first answered
+    // query: rebuilding a table from the binary key file versus reopening a
+    // MappedIntSet written earlier, then the cost of the first lookups while the
+    // mapped pages fault in. The OS page cache stays warm between repeats.
+    static void runPersist() throws Exception {
+        String[] names = {"Rebuild Quadratic int[] from key file", "Rebuild Quadratic from key file",
+                          "Reopen mapped index"};
+        String[] colNames = SCALES.stream().map(s -> s.label).toArray(String[]::new);
+        long[][] ready = new long[names.length][SCALES.size()];
+        long[][] cold = new long[names.length][SCALES.size()];
+        Path dir = Files.createTempDirectory("persist");
+        int col = 0;
+
+        for (ScaleCfg cfg : SCALES) {
+            int[] insertKeys = insertKeysFor(cfg);
+            int[] searchKeys = searchKeysFor(cfg, insertKeys);
+            Path keyFile = dir.resolve("keys.bin");
+            Path index = dir.resolve("index.idx");
+
+            KeyFile.write(keyFile, insertKeys, false);
+
+            try (MappedIntSet m = MappedIntSet.create(index, cfg.N)) {
+                m.insertAll(insertKeys);
+            }
+
+            for (int r = 0; r < REPEATS; r++) {
+                for (int i = 0; i < names.length; i++) {
+                    long t0 = System.nanoTime();
+                    IntSet s;
+
+                    if (i == 2) {
+                        s = MappedIntSet.open(index);
+                    } else {
+                        int[] keys = KeyFile.read(keyFile, 0);
+                        s = i == 0 ? new HashTableQuadraticInt(cfg.mQuadratic) : new HashTableQuadratic(cfg.mQuadratic);
+                        s.insertAll(keys);
+                    }
+
+                    long hits = s.contains(searchKeys[0]) ? 1 : 0;
+                    long t1 = System.nanoTime();
+                    int n = Math.min(COLD_QUERIES, searchKeys.length);
+
+                    for (int q = 1; q <= n; q++) {
+                        hits += s.contains(searchKeys[q % searchKeys.length]) ? 1 : 0;
+                    }
+
+                    long t2 = System.nanoTime();
+                    sink.add(hits);
+                    s.close();
+
+                    ready[i][col] += Measure.micros(t1 - t0) / REPEATS;
+                    cold[i][col] += (t2 - t1) / n / REPEATS;
+                }
+            }
+
+            col++;
+        }
+
+        try (DirectoryStream<Path> ds = Files.newDirectoryStream(dir)) {
+            for (Path p : ds) {
+                Files.delete(p);
+            }
+        }
+
+        Files.delete(dir);
+
+        printTable("Cold Start - Open or Rebuild + First Query (Time in us)", ready, names, colNames);
+        printTable(String.format("Cold Start - Next %,d Queries (ns/op)", COLD_QUERIES), cold, names, colNames);
+    }
+
+    static final byte OP_INSERT = 0, OP_REMOVE = 1, OP_LOOKUP = 2;
+
+    // Recorded insert/remove/lookup mix, replayed identically against every engine
+    static class ChurnOps {
+        final int[] prefill;
+        final byte[] ops;
+        final int[] keys;
+
+        ChurnOps(int[] prefill, byte[] ops, int[] keys) {
+            this.prefill = prefill;
+            this.ops = ops;
+            this.keys = keys;
+        }
+    }
+
+    // Writes are split evenly between inserting a fresh key and removing a random
+    // live one, so the set stays around n keys while its slots keep turning over.
+    // Lookups are half live keys, half random keys from the whole range.
+    static ChurnOps churnOps(int n, int total, int writePercent, long seed) {
+        int[] fresh = randomUniqueInts(n + total, seed);
+        int[] live = Arrays.copyOf(fresh, n + total);
+        int liveSize = n, nextFresh = n;
+        int range = 2 * (n + total);
+
+        byte[] ops = new byte[total];
+        int[] keys = new int[total];
+        Random rnd = new Random(seed + 1);
+
+        for (int i = 0; i < total; i++) {
+            int r = rnd.nextInt(200);
+
+            if (r < writePercent) {
+                ops[i] = OP_INSERT;
+                keys[i] = fresh[nextFresh++];
+                live[liveSize++] = keys[i];
+            } else if (r < 2 * writePercent && liveSize > 0) {
+                int j = rnd.nextInt(liveSize);
+                ops[i] = OP_REMOVE;
+                keys[i] = live[j];
+                live[j] = live[--liveSize];
+            } else {
+                ops[i] = OP_LOOKUP;
+                keys[i] = rnd.nextBoolean() && liveSize > 0 ? live[rnd.nextInt(liveSize)] : 1 + rnd.nextInt(range);
+            }
+        }
+
+        return new ChurnOps(Arrays.copyOf(fresh, n), ops, keys);
+    }
+
+    // Slots a lookup of key examines, or -1 for engines that don't probe
+    static int probes(IntSet s, int key) {
+        if (s instanceof HashTableQuadratic) {
+            return ((HashTableQuadratic) s).probes(key);
+        }
+
+        if (s instanceof HashTableQuadraticInt) {
+            return ((HashTableQuadraticInt) s).probes(key);
+        }
+
+        if (s instanceof HashTableRobinHood) {
+            return ((HashTableRobinHood) s).probes(key);
+        }
+
+        if (s instanceof HashTableCuckoo) {
+            return ((HashTableCuckoo) s).probes(key);
+        }
+
+        return -1;
+    }
+
+    // Slots per 100 lookups over the lookups in [from, to), or -1 for engines
+    // that don't probe
+    static long probesPer100(IntSet s, ChurnOps w, int from, int to) {
+        long probes = 0, lookups = 0;
+
+        for (int i = from; i < to; i++) {
+            if (w.ops[i] != OP_LOOKUP) {
+                continue;
+            }
+
+            int p = probes(s, w.keys[i]);
+
+            if (p < 0) {
+                return -1;
+            }
+
+            probes += p;
+            lookups++;
+        }
+
+        return 100 * probes / Math.max(1, lookups);
+    }
+
+    // Churn mode - prefill the largest scale, then replay CHURN_PHASES phases of N
+    // mixed ops and report how time per op, tail latency and probe length drift
+    // as removed keys pile up (tombstones) and get compacted away.
+    static void runChurn() throws Exception {
+        ScaleCfg cfg = SCALES.get(SCALES.size() - 1);
+        List<IntSetProvider> sets = structures(IntSets.DEFAULT_STRUCTURES);
+        ChurnOps w = churnOps(cfg.N, CHURN_PHASES * cfg.N, CHURN_WRITES, 500 + cfg.iter);
+
+        String[] colNames = new String[CHURN_PHASES];
+
+        for (int p = 0; p < CHURN_PHASES; p++) {
+            colNames[p] = "Phase " + (p + 1);
+        }
+
+        long[][] mean = new long[sets.size()][CHURN_PHASES];
+        long[][] p99 = new long[sets.size()][CHURN_PHASES];
+        long[][] probes = new long[sets.size()][CHURN_PHASES];
+        long[] lat = new long[(cfg.N + CHURN_BATCH - 1) / CHURN_BATCH];
+
+        for (int i = 0; i < sets.size(); i++) {
+            IntSet s = sets.get(i).create(cfg);
+
+            for (int k : w.prefill) {
+                s.insert(k);
+            }
+
+            for (int p = 0; p < CHURN_PHASES; p++) {
+                int from = p * cfg.N, to = from + cfg.N;
+                long hits = 0;
+                int b = 0;
+                long start = System.nanoTime();
+
+                for (int j = from; j < to; j += CHURN_BATCH) {
+                    int end = Math.min(to, j + CHURN_BATCH);
+                    long t0 = System.nanoTime();
+
+                    for (int o = j; o < end; o++) {
+                        switch (w.ops[o]) {
+                            case OP_INSERT: s.insert(w.keys[o]); break;
+                            case OP_REMOVE: hits += s.remove(w.keys[o]) ? 1 : 0; break;
+                            default:        hits += s.contains(w.keys[o]) ? 1 : 0; break;
+                        }
+                    }
+
+                    lat[b++] = (System.nanoTime() - t0) / (end - j);
+                }
+
+                mean[i][p] = (System.nanoTime() - start) / cfg.N;
+                sink.add(hits);
+
+                Arrays.sort(lat, 0, b);
+                p99[i][p] = Measure.percentile(Arrays.copyOf(lat, b), 99);
+                probes[i][p] = probesPer100(s, w, from, to);
+            }
+
+            s.close();
+        }
+
+        String[] names = labels(sets);
+
+        printTable(String.format("Churn, N=%s, %d%% writes - Time per Op by Phase (ns/op)", cfg.label, CHURN_WRITES),
+            mean, names, colNames);
+        printTable(String.format("Churn - p99 of %d-op Batches by Phase (ns/op)", CHURN_BATCH), p99, names, colNames);
+
+        // Only the open-addressing engines report probe lengths
+        List<String> probeNames = new ArrayList<>();
+        List<long[]> probeRows = new ArrayList<>();
+
+        for (int i = 0; i < sets.size(); i++) {
+            if (probes[i][0] >= 0) {
+                probeNames.add(names[i]);
+                probeRows.add(probes[i]);
+            }
+        }
+
+        if (!probeRows.isEmpty()) {
+            printTable("Churn - Lookup Probe Length by Phase (slots per 100 lookups)",
+                probeRows.toArray(new long[0][]), probeNames.toArray(new String[0]), colNames);
+        }
+    }
+
+    // Percentile table - one row per histogram, p50/p90/p99/p99.9/max columns
+    static void printTable(String title, LatencyHistogram[] rows, String[] rowNames) {
+        long[][] cells = new long[rows.length][];
+
+        for (int i = 0; i < rows.length; i++) {
+            cells[i] = rows[i].percentiles();
+        }
+
+        printTable(title, cells, rowNames, LatencyHistogram.PERCENTILE_NAMES);
+    }
+
+    // One row per engine counter: the mean (x100, two implied decimals) and the
+    // same percentiles as the latency tables. Engines without counters are skipped.
+    static void printMetrics(String title, Results[] results, String[] names) {
+        List<String> rowNames = new ArrayList<>();
+        List<long[]> rows = new ArrayList<>();
+
+        for (int i = 0; i < results.length; i++) {
+            for (Map.Entry<String, Metrics> e : results[i].metrics.entrySet()) {
+                Metrics m = e.getValue();
+                long[] row = new long[1 + LatencyHistogram.PERCENTILES.length];
+                row[0] = m.per100();
+                System.arraycopy(m.hist.percentiles(), 0, row, 1, LatencyHistogram.PERCENTILES.length);
+                rowNames.add(names[i] + " - " + e.getKey());
+                rows.add(row);
+            }
+        }
+
+        if (rows.isEmpty()) {
+            return;
+        }
+
+        String[] colNames = new String[1 + LatencyHistogram.PERCENTILE_NAMES.length];
+        colNames[0] = "mean x100";
+        System.arraycopy(LatencyHistogram.PERCENTILE_NAMES, 0, colNames, 1, LatencyHistogram.PERCENTILE_NAMES.length);
+        printTable(title, rows.toArray(new long[0][]), rowNames.toArray(new String[0]), colNames);
+    }
+
+    // Pretty table (also collected for -Dout)
+    static void printTable(String title, long[][] rows, String[] rowNames, String[] colNames) {
+        Report.table(title, rows, rowNames, colNames);
+        System.out.println();
+        System.out.println(title);
+
+        // Label column fits the longest row name (registry labels vary in length)
+        int width = 30;
+
+        for (String r : rowNames) {
+            width = Math.max(width, r.length() + 2);
+        }
+
+        String label = "%-" + width + "s";
+        System.out.printf(label, "Data Structure");
+        
+        for (String c : colNames) {
+            System.out.printf("%12s", c);
+        }
+
+        System.out.println();
+        
+        for (int i = 0; i < rows.length; i++) {
+            System.out.printf(label, rowNames[i]);
+            
+            for (long v : rows[i]) {
+                System.out.printf("%12d", v);
+            }
+
+            System.out.println();
+        }
+    }
+
+    static Results[] runScale(ScaleCfg cfg, List<IntSetProvider> sets, int[] insertKeys, int[] searchKeys) {
+        Results[] res = new Results[sets.size()];
+
+        for (int i = 0; i < res.length; i++) {
+            IntSetProvider p = sets.get(i);
+            res[i] = bench(() -> p.create(cfg), insertKeys, searchKeys);
+        }
+
+        return res;
+    }
+
+    // Main
+    public static void main(String[] args) throws Exception {
+        if (args.length > 0 && args[0].equals("compare")) {
+            if (args.length != 3) {
+                System.err.println("Usage: Benchmark compare <baseline file> <current file>");
+                System.exit(2);
+            }
+
+            System.exit(Compare.run(Paths.get(args[1]), Paths.get(args[2])));
+        }
+
+        run(args);
+        Report.writeIfRequested(args);
+    }
+
+    static void run(String[] args) throws Exception {
+        workload = Workload.selected();
+
+        if (args.length > 0 && args[0].equals("threads")) {
+            runThreads();
+            return;
+        }
+
+        if (args.length > 0 && args[0].equals("splay")) {
+            runSplayPolicies();
+            return;
+        }
+
+        if (args.length > 0 && args[0].equals("ordered")) {
+            runOrdered();
+            return;
+        }
+
+        if (args.length > 0 && args[0].equals("persist")) {
+            runPersist();
+            return;
+        }
+
+        if (args.length > 0 && args[0].equals("gc")) {
+            runGc();
+            return;
+        }
+
+        if (args.length > 0 && args[0].equals("churn")) {
+            runChurn();
+            return;
+        }
+
+        if (args.length > 0 && args[0].equals("memory")) {
+            runMemory();
+            return;
+        }
+
+        if (args.length > 0 && args[0].equals("sweep")) {
+            runSweep();
+            return;
+        }
+
+        if (args.length > 0 && args[0].equals("load")) {
+            runLoad();
+            return;
+        }
+
+        if (args.length > 0 && args[0].equals("batch")) {
+            runBatch();
+            return;
+        }
+
+        if (args.length > 0 && args[0].equals("hash")) {
+            runHash();
+            return;
+        }
+
+        if (args.length > 0 && args[0].equals("range")) {
+            runRange();
+            return;
+        }
+
+        List<IntSetProvider> sets = structures(IntSets.DEFAULT_STRUCTURES);
+        String[] dsNames = labels(sets);
+        String[] colNames = SCALES.stream().map(s -> s.label).toArray(String[]::new);
+
+        long[][] ins = new long[dsNames.length][SCALES.size()];
+        long[][] sea = new long[dsNames.length][SCALES.size()];
+        long[][] bulk = new long[dsNames.length][SCALES.size()];
+        long[][] retained = new long[dsNames.length][SCALES.size()];
+        List<Results[]> perScale = new ArrayList<>();
+
+        int col = 0;
+        
+        for (ScaleCfg cfg : SCALES) {
+            int[] insertKeys = insertKeysFor(cfg);
+            int[] searchKeys = searchKeysFor(cfg, insertKeys);
+
+            Results[] r = runScale(cfg, sets, insertKeys, searchKeys);
+            perScale.add(r);
+            long n = Math.max(1, Arrays.stream(insertKeys).distinct().count());
+            
+            for (int i = 0; i < r.length; i++) {
+                IntSetProvider p = sets.get(i);
+                long[] bulkNanos = benchBulk(() -> p.create(cfg), insertKeys);
+                ins[i][col] = r[i].insertMicros;
+                sea[i][col] = r[i].searchMicros;
+                bulk[i][col] = Measure.micros(Measure.mean(bulkNanos));
+                retained[i][col] = Math.round((double) r[i].retainedBytes / n);
+
+                // Raw repeat times for -Dout and Benchmark compare
+                Report.samples("Insert all keys", dsNames[i], cfg.label, "ns", r[i].insertNanos);
+                Report.samples("Search all keys", dsNames[i], cfg.label, "ns", r[i].searchNanos);
+                Report.samples("Bulk load all keys", dsNames[i], cfg.label, "ns", bulkNanos);
+            }
+
+            col++;
+        }
+
+        printTable("Insertion Performance (Time in us)", ins, dsNames, colNames);
+        printTable("Search Performance (Time in us)",    sea, dsNames, colNames);
+        printTable("Bulk Load Performance - insertAll (Time in us)", bulk, dsNames, colNames);
+        printTable("Retained Size, Object Graph (bytes/key)", retained, dsNames, colNames);
+        printGraphSkipped();
+
+        if (LATENCY) {
+            for (int c = 0; c < SCALES.size(); c++) {
+                LatencyHistogram[] insLat = new LatencyHistogram[dsNames.length];
+                LatencyHistogram[] seaLat = new LatencyHistogram[dsNames.length];
+
+                for (int i = 0; i < dsNames.length; i++) {
+                    insLat[i] = perScale.get(c)[i].insertLat;
+                    seaLat[i] = perScale.get(c)[i].searchLat;
+                }
+
+                printTable("Insert Latency, N=" + SCALES.get(c).label + " (ns/op)", insLat, dsNames);
+                printTable("Search Latency, N=" + SCALES.get(c).label + " (ns/op)", seaLat, dsNames);
+            }
+        }
+
+        if (Metrics.ENABLED) {
+            for (int c = 0; c < SCALES.size(); c++) {
+                printMetrics("Structure Counters, N=" + SCALES.get(c).label, perScale.get(c), dsNames);
+            }
+        }
+
+        // Growable tables - p50/p99/max of a single insert across resize events
+        String[] growNames = {"Chaining p50", "Chaining p99", "Chaining max",
+                              "Quadratic p50", "Quadratic p99", "Quadratic max"};
+        long[][] grow = new long[growNames.length][SCALES.size()];
+        col = 0;
+
+        for (ScaleCfg cfg : SCALES) {
+            int[] insertKeys = insertKeysFor(cfg);
+            long[] c = resizeLatency(insertKeys, true);
+            long[] q = resizeLatency(insertKeys, false);
+
+            for (int i = 0; i < 3; i++) {
+                grow[i][col] = c[i];
+                grow[3 + i][col] = q[i];
+            }
+
+            col++;
+        }
+
+        printTable("Growable Insert Latency Across Resizes (ns/op)", grow, growNames, colNames);
+
+        // AVL memory - Node objects vs int[] pools
+        String[] avlNames = {"AVL Tree (Node objects)", "AVL Tree (flat int[])"};
+        long[][] avlMem = new long[avlNames.length][SCALES.size()];
+        col = 0;
+
+        for (ScaleCfg cfg : SCALES) {
+            AVLTree a = new AVLTree();
+            AVLTreeFlat f = new AVLTreeFlat();
+
+            for (int k : insertKeysFor(cfg)) {
+                a.insert(k);
+                f.insert(k);
+            }
+
+            avlMem[0][col] = a.memoryBytes() / Math.max(1, a.size());
+            avlMem[1][col] = f.memoryBytes() / Math.max(1, f.size());
+            col++;
+        }
+
+        printTable("AVL Memory (bytes/key)", avlMem, avlNames, colNames);
+
+        // Chaining memory - LinkedList buckets vs flat int[] chains at each scale's table size
+        String[] memNames = {"Chaining (LinkedList)", "Chaining (flat)"};
+        long[][] mem = new long[memNames.length][SCALES.size()];
+        String[] histNames = new String[CHAIN_HIST_MAX + 1];
+        long[][] hist = new long[histNames.length][SCALES.size()];
+        col = 0;
+
+        for (int i = 0; i <= CHAIN_HIST_MAX; i++) {
+            histNames[i] = "Chain length " + i + (i == CHAIN_HIST_MAX ? "+" : "");
+        }
+
+        for (ScaleCfg cfg : SCALES) {
+            HashTableChaining c = new HashTableChaining(cfg.mChaining);
+            HashTableChainingFlat f = new HashTableChainingFlat(cfg.mChaining);
+
+            for (int k : insertKeysFor(cfg)) {
+                c.insert(k);
+                f.insert(k);
+            }
+
+            mem[0][col] = c.memoryBytes() / Math.max(1, c.size());
+            mem[1][col] = f.memoryBytes() / Math.max(1, f.size());
+
+            // Both tables hash and grow identically, so their chains are the same
+            int[] h = f.chainLengthHistogram(CHAIN_HIST_MAX);
+
+            for (int i = 0; i < h.length; i++) {
+                hist[i][col] = h[i];
             }
 
             col++;
         }
 
-        printTable("Insertion Performance (Time in ms)", ins, dsNames, colNames);
-        printTable("Search Performance (Time in ms)",    sea, dsNames, colNames);
+        printTable("Chaining Memory (bytes/key)", mem, memNames, colNames);
+        printTable("Chaining Chain Lengths (buckets)", hist, histNames, colNames);
 
         AVLTree avlTree = new AVLTree();
         SplayTree splayTree = new SplayTree();
@@ -388,5 +1798,6 @@ public class Benchmark {
         System.out.println("JVM vendor: " + System.getProperty("java.vendor"));
         System.out.println("OS: " + System.getProperty("os.name") + " " + System.getProperty("os.arch"));
         System.out.println("Repeats per measurement: " + REPEATS);
+        System.out.println("Workload: " + workload.name);
     }
 }
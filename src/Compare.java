@@ -0,0 +1,182 @@
+import java.nio.file.*;
+import java.util.*;
+
+// Diffs two result files written with -Dout (see Report):
+//   java -cp bin Benchmark compare baseline.json current.json
+//
+// Only rows with at least two samples on each side (the raw repeat times) can be
+// tested. For those the medians are compared and a two-sided Mann-Whitney U
+// test decides whether the difference is real - exact for small samples, normal
+// approximation with tie correction otherwise. A row regresses when it is
+// significant at -Dalpha (0.05) and worse by more than -Dthreshold percent (5).
+// Units ending in "/s" are throughput, higher is better; everything else is a
+// cost, lower is better.
+class Compare {
+    static final double ALPHA = Double.parseDouble(System.getProperty("alpha", "0.05"));
+    static final double THRESHOLD = Double.parseDouble(System.getProperty("threshold", "5"));
+
+    // Largest side for which the exact U distribution is computed
+    static final int EXACT_MAX = 20;
+
+    // Returns the exit status: 0 if nothing regressed, 1 otherwise
+    static int run(Path baseline, Path current) throws Exception {
+        Report base = Report.read(baseline);
+        Report cur = Report.read(current);
+        Map<String, Report.Row> before = new HashMap<>();
+
+        for (Report.Row r : base.rows) {
+            before.put(r.key(), r);
+        }
+
+        for (String k : new String[] {"java.version", "os.name", "os.arch", "cpus", "workload", "repeats"}) {
+            String a = base.environment.get(k), b = cur.environment.get(k);
+
+            if (!Objects.equals(a, b)) {
+                System.out.printf("Note: %s differs - %s vs %s%n", k, a, b);
+            }
+        }
+
+        System.out.printf("%-40s %-28s %-10s %12s %12s %8s %8s  %s%n",
+            "Metric", "Structure", "Scale", "Baseline", "Current", "Change", "p", "");
+        int regressions = 0, compared = 0, untestable = 0;
+
+        for (Report.Row r : cur.rows) {
+            Report.Row b = before.get(r.key());
+
+            if (b == null) {
+                continue;
+            }
+
+            if (b.samples.length < 2 || r.samples.length < 2) {
+                untestable++;
+                continue;
+            }
+
+            compared++;
+            double m0 = median(b.samples), m1 = median(r.samples);
+            double change = m0 == 0 ? 0 : 100.0 * (m1 - m0) / m0;
+            double worse = r.unit.endsWith("/s") ? -change : change;
+            double p = mannWhitneyP(b.samples, r.samples);
+            String verdict = "";
+
+            if (p < ALPHA && worse > THRESHOLD) {
+                verdict = "REGRESSION";
+                regressions++;
+            } else if (p < ALPHA && worse < -THRESHOLD) {
+                verdict = "improved";
+            }
+
+            System.out.printf(Locale.ROOT, "%-40s %-28s %-10s %12.0f %12.0f %+7.1f%% %8.4f  %s%n",
+                r.metric + " (" + r.unit + ")", r.structure, r.scale, m0, m1, change, p, verdict);
+        }
+
+        System.out.println();
+        System.out.printf("%d rows compared, %d single-sample rows not tested, %d regressions "
+            + "(alpha %.3f, threshold %.1f%%)%n", compared, untestable, regressions, ALPHA, THRESHOLD);
+        return regressions > 0 ? 1 : 0;
+    }
+
+    static double median(long[] v) {
+        long[] s = v.clone();
+        Arrays.sort(s);
+        int n = s.length;
+        return n % 2 == 1 ? s[n / 2] : (s[n / 2 - 1] + s[n / 2]) / 2.0;
+    }
+
+    // Two-sided p-value of the Mann-Whitney U test
+    static double mannWhitneyP(long[] a, long[] b) {
+        int n1 = a.length, n2 = b.length;
+        long[] all = new long[n1 + n2];
+        System.arraycopy(a, 0, all, 0, n1);
+        System.arraycopy(b, 0, all, n1, n2);
+        long[] sorted = all.clone();
+        Arrays.sort(sorted);
+
+        // Midranks; ties share the average of the ranks they span
+        double rankSumA = 0;
+        double tieTerm = 0;
+
+        for (int i = 0; i < sorted.length; ) {
+            int j = i;
+
+            while (j < sorted.length && sorted[j] == sorted[i]) {
+                j++;
+            }
+
+            double rank = (i + 1 + j) / 2.0;
+            int t = j - i;
+            tieTerm += (double) t * t * t - t;
+
+            for (int k = 0; k < n1; k++) {
+                if (a[k] == sorted[i]) {
+                    rankSumA += rank;
+                }
+            }
+
+            i = j;
+        }
+
+        double u = rankSumA - n1 * (n1 + 1) / 2.0;
+        double mean = n1 * (double) n2 / 2;
+
+        if (tieTerm == 0 && n1 <= EXACT_MAX && n2 <= EXACT_MAX) {
+            return exactP(Math.min(u, n1 * (double) n2 - u), n1, n2);
+        }
+
+        int n = n1 + n2;
+        double var = n1 * (double) n2 / 12 * ((n + 1) - tieTerm / ((double) n * (n - 1)));
+
+        if (var == 0) {
+            return 1;
+        }
+
+        double z = Math.max(0, Math.abs(u - mean) - 0.5) / Math.sqrt(var);
+        return Math.min(1, 2 * (1 - normalCdf(z)));
+    }
+
+    // P(U <= u) doubled, from the exact null distribution: the number of ways
+    // to reach each U when adding one observation at a time
+    private static double exactP(double u, int n1, int n2) {
+        int max = n1 * n2;
+        double[][] prev = new double[n2 + 1][max + 1];
+
+        // counts[m][k] with n1 = 0: one arrangement, U = 0
+        for (int m = 0; m <= n2; m++) {
+            prev[m][0] = 1;
+        }
+
+        for (int i = 1; i <= n1; i++) {
+            double[][] cur = new double[n2 + 1][max + 1];
+            cur[0][0] = 1;
+
+            for (int m = 1; m <= n2; m++) {
+                for (int k = 0; k <= i * m; k++) {
+                    // The largest value is from the first sample (adds m to U) or the second
+                    cur[m][k] = (k >= m ? prev[m][k - m] : 0) + cur[m - 1][k];
+                }
+            }
+
+            prev = cur;
+        }
+
+        double total = 0, tail = 0;
+
+        for (int k = 0; k <= max; k++) {
+            total += prev[n2][k];
+
+            if (k <= u) {
+                tail += prev[n2][k];
+            }
+        }
+
+        return Math.min(1, 2 * tail / total);
+    }
+
+    // Abramowitz & Stegun 26.2.17, |error| < 7.5e-8
+    private static double normalCdf(double z) {
+        double t = 1 / (1 + 0.2316419 * Math.abs(z));
+        double poly = t * (0.319381530 + t * (-0.356563782 + t * (1.781477937 + t * (-1.821255978 + t * 1.330274429))));
+        double p = 1 - Math.exp(-z * z / 2) / Math.sqrt(2 * Math.PI) * poly;
+        return z >= 0 ? p : 1 - p;
+    }
+}
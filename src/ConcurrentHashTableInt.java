@@ -0,0 +1,269 @@
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+
+// Thread-safe int hash set built from HashTableQuadraticInt-style segments.
+// The key space is split across power-of-two stripes by the high hash bits; each
+// stripe is an open-addressing int[] with its own lock.
+//
+// Readers never lock: they read the stripe's current array through a volatile
+// field and each slot with acquire semantics. Writers lock their stripe, publish a
+// key with a release store, and on resize build the new array completely before
+// swapping it in, so a reader sees either the old or the new array, never a
+// half-filled one. remove() leaves a tombstone, which readers probe past; a
+// stripe whose tombstones reach half of its used slots is rebuilt at the same
+// size instead of doubling.
+class ConcurrentHashTableInt implements IntSet {
+    static final int EMPTY = 0;
+    static final int TOMB = Integer.MIN_VALUE;
+    static final double MAX_LOAD = 0.5;
+
+    private static final VarHandle SLOT = MethodHandles.arrayElementVarHandle(int[].class);
+
+    static final class Stripe {
+        volatile int[] table;
+        int used;   // keys + tombstones, guarded by this
+        int live;   // keys, guarded by this
+
+        Stripe(int cap) {
+            table = new int[cap];
+        }
+    }
+
+    private final Stripe[] stripes;
+    private final int shift;
+
+    // Keys that collide with a sentinel are tracked out of band
+    private volatile boolean hasEmptyKey;
+    private volatile boolean hasTombKey;
+
+    public ConcurrentHashTableInt() {
+        this(64, 16);
+    }
+
+    public ConcurrentHashTableInt(int expected, int concurrency) {
+        if (expected < 0 || concurrency <= 0) {
+            throw new IllegalArgumentException("Invalid size or concurrency level");
+        }
+
+        int n = Integer.highestOneBit(Math.max(1, concurrency - 1)) << 1;
+        int perStripe = (int) Math.min(1 << 30, (long) (expected / MAX_LOAD / n) + 1);
+        int cap = Integer.highestOneBit(Math.max(2, perStripe - 1)) << 1;
+
+        stripes = new Stripe[n];
+        shift = 32 - Integer.numberOfTrailingZeros(n);
+
+        for (int i = 0; i < n; i++) {
+            stripes[i] = new Stripe(cap);
+        }
+    }
+
+    // Murmur3 finalizer - high bits pick the stripe, low bits the slot
+    private static int mix(int key) {
+        int h = key;
+        h ^= h >>> 16;
+        h *= 0x85ebca6b;
+        h ^= h >>> 13;
+        h *= 0xc2b2ae35;
+        h ^= h >>> 16;
+        return h;
+    }
+
+    private Stripe stripeFor(int hash) {
+        return shift == 32 ? stripes[0] : stripes[hash >>> shift];
+    }
+
+    public boolean contains(int key) {
+        if (key == EMPTY) {
+            return hasEmptyKey;
+        }
+
+        if (key == TOMB) {
+            return hasTombKey;
+        }
+
+        int hash = mix(key);
+        int[] t = stripeFor(hash).table;
+        int mask = t.length - 1;
+        int idx = hash & mask;
+
+        for (int j = 1; j <= t.length; j++) {
+            int v = (int) SLOT.getAcquire(t, idx);
+
+            if (v == key) {
+                return true;
+            }
+
+            if (v == EMPTY) {
+                return false;
+            }
+
+            idx = (idx + j) & mask;
+        }
+
+        return false;
+    }
+
+    // Insert key, ignores duplicates.
+    public void insert(int key) {
+        if (key == EMPTY || key == TOMB) {
+            insertSentinel(key);
+            return;
+        }
+
+        int hash = mix(key);
+        Stripe s = stripeFor(hash);
+
+        synchronized (s) {
+            if (s.used + 1 > MAX_LOAD * s.table.length) {
+                resize(s);
+            }
+
+            place(s, s.table, hash, key);
+        }
+    }
+
+    private synchronized void insertSentinel(int key) {
+        if (key == EMPTY) {
+            hasEmptyKey = true;
+        } else {
+            hasTombKey = true;
+        }
+    }
+
+    // Caller holds the stripe lock. A key goes into the first tombstone on its
+    // probe sequence once the rest of the sequence has shown it is absent.
+    private static boolean place(Stripe s, int[] t, int hash, int key) {
+        int mask = t.length - 1;
+        int idx = hash & mask;
+        int firstTomb = -1;
+
+        for (int j = 1; j <= t.length; j++) {
+            int v = t[idx];
+
+            if (v == key) {
+                return false;
+            }
+
+            if (v == EMPTY) {
+                if (firstTomb != -1) {
+                    idx = firstTomb;
+                } else {
+                    s.used++;
+                }
+
+                SLOT.setRelease(t, idx, key);
+                s.live++;
+                return true;
+            }
+
+            if (v == TOMB && firstTomb == -1) {
+                firstTomb = idx;
+            }
+
+            idx = (idx + j) & mask;
+        }
+
+        if (firstTomb != -1) {
+            SLOT.setRelease(t, firstTomb, key);
+            s.live++;
+            return true;
+        }
+
+        throw new IllegalStateException("Hash table is full");
+    }
+
+    // Removes key, returns true if it was present.
+    public boolean remove(int key) {
+        if (key == EMPTY || key == TOMB) {
+            return removeSentinel(key);
+        }
+
+        int hash = mix(key);
+        Stripe s = stripeFor(hash);
+
+        synchronized (s) {
+            int[] t = s.table;
+            int mask = t.length - 1;
+            int idx = hash & mask;
+
+            for (int j = 1; j <= t.length; j++) {
+                int v = t[idx];
+
+                if (v == key) {
+                    SLOT.setRelease(t, idx, TOMB);
+                    s.live--;
+                    return true;
+                }
+
+                if (v == EMPTY) {
+                    return false;
+                }
+
+                idx = (idx + j) & mask;
+            }
+
+            return false;
+        }
+    }
+
+    private synchronized boolean removeSentinel(int key) {
+        boolean had = key == EMPTY ? hasEmptyKey : hasTombKey;
+
+        if (key == EMPTY) {
+            hasEmptyKey = false;
+        } else {
+            hasTombKey = false;
+        }
+
+        return had;
+    }
+
+    // Caller holds the stripe lock. Only this stripe is rehashed, so the pause is
+    // bounded by the stripe size rather than the whole set. Doubles, unless at
+    // least half of the used slots are tombstones - then dropping them is enough.
+    private static void resize(Stripe s) {
+        int[] old = s.table;
+        int[] t = new int[2 * (s.used - s.live) >= s.used ? old.length : old.length * 2];
+        int mask = t.length - 1;
+
+        for (int v : old) {
+            if (v == EMPTY || v == TOMB) {
+                continue;
+            }
+
+            int idx = mix(v) & mask;
+
+            for (int j = 1; t[idx] != EMPTY; j++) {
+                idx = (idx + j) & mask;
+            }
+
+            t[idx] = v;
+        }
+
+        s.used = s.live;
+        s.table = t;   // volatile publish of a fully built array
+    }
+
+    public int size() {
+        int n = (hasEmptyKey ? 1 : 0) + (hasTombKey ? 1 : 0);
+
+        for (Stripe s : stripes) {
+            synchronized (s) {
+                n += s.live;
+            }
+        }
+
+        return n;
+    }
+
+    // Stripe objects plus their int[] tables
+    public long memoryBytes() {
+        long bytes = 16L + 4L * stripes.length;
+
+        for (Stripe s : stripes) {
+            bytes += 24L + 16L + 4L * s.table.length;
+        }
+
+        return bytes;
+    }
+}
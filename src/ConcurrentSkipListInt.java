@@ -0,0 +1,239 @@
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Concurrent ordered int set - a lock-free skip list specialized for int keys
+// (no boxing, one node per key with an inline array of forward links).
+//
+// contains() is wait-free: it only follows links with acquire loads. insert()
+// links the new node at level 0 with a CAS, which is the point it becomes
+// visible, then CASes it into the upper levels one at a time, re-searching for
+// predecessors whenever another insert got there first.
+//
+// remove() deletes the way java.util.concurrent.ConcurrentSkipListMap does: it
+// CASes a marker node in after the victim on each level, top down. A marked link
+// can't be CASed by an insert, so nothing gets linked after a dead node, and the
+// level-0 marker is the point the key leaves the set. Searches step over marked
+// nodes; find() also unlinks them.
+class ConcurrentSkipListInt implements IntSet {
+    static final int MAX_LEVEL = 32;
+
+    private static final VarHandle NEXT = MethodHandles.arrayElementVarHandle(Node[].class);
+
+    static final class Node {
+        final int key;
+        final Node[] next;
+        final boolean marker;
+
+        Node(int key, int height) {
+            this.key = key;
+            this.next = new Node[height];
+            this.marker = false;
+        }
+
+        // Marker for a deleted node: next[0] is the node's successor when marked
+        Node(Node succ) {
+            this.key = 0;
+            this.next = new Node[] {succ};
+            this.marker = true;
+        }
+    }
+
+    // Sentinel - its key is never compared
+    private final Node head = new Node(0, MAX_LEVEL);
+    private final AtomicInteger size = new AtomicInteger();
+
+    // Highest level any node reaches; searches start here instead of MAX_LEVEL
+    private final AtomicInteger height = new AtomicInteger(1);
+
+    private static Node next(Node n, int level) {
+        return (Node) NEXT.getAcquire(n.next, level);
+    }
+
+    // The first live node on level lvl at or after n (n's successors, for a marker)
+    private static Node live(Node n, int lvl) {
+        while (n != null) {
+            if (n.marker) {
+                n = n.next[0];
+                continue;
+            }
+
+            Node succ = next(n, lvl);
+
+            if (succ == null || !succ.marker) {
+                return n;
+            }
+
+            n = succ.next[0];   // n is deleted at this level
+        }
+
+        return null;
+    }
+
+    public boolean contains(int key) {
+        Node pred = head;
+
+        for (int lvl = height.get() - 1; lvl >= 0; lvl--) {
+            Node cur = live(next(pred, lvl), lvl);
+
+            while (cur != null && cur.key < key) {
+                pred = cur;
+                cur = live(next(pred, lvl), lvl);
+            }
+
+            // Levels are marked top down, so live at any level means not yet removed
+            if (cur != null && cur.key == key) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    // Fills preds/succs for levels [0, top): the last node < key and the first
+    // node >= key on each level. Unlinks marked nodes on the way and starts over
+    // from the head if a predecessor turns out to be deleted.
+    private void find(int key, int top, Node[] preds, Node[] succs) {
+        retry:
+        while (true) {
+            Node pred = head;
+
+            for (int lvl = top - 1; lvl >= 0; lvl--) {
+                Node cur = next(pred, lvl);
+
+                while (cur != null) {
+                    if (cur.marker) {
+                        continue retry;
+                    }
+
+                    Node succ = next(cur, lvl);
+
+                    if (succ != null && succ.marker) {
+                        if (!NEXT.compareAndSet(pred.next, lvl, cur, succ.next[0])) {
+                            continue retry;
+                        }
+
+                        cur = succ.next[0];
+                    } else if (cur.key < key) {
+                        pred = cur;
+                        cur = succ;
+                    } else {
+                        break;
+                    }
+                }
+
+                preds[lvl] = pred;
+                succs[lvl] = cur;
+            }
+
+            return;
+        }
+    }
+
+    // Insert key, ignores duplicates.
+    public void insert(int key) {
+        int h = randomHeight();
+        int top = Math.max(h, height.get());
+        Node[] preds = new Node[top];
+        Node[] succs = new Node[top];
+        Node n = new Node(key, h);
+
+        while (true) {
+            find(key, top, preds, succs);
+
+            if (succs[0] != null && succs[0].key == key) {
+                return;   // duplicate
+            }
+
+            for (int lvl = 0; lvl < h; lvl++) {
+                n.next[lvl] = succs[lvl];
+            }
+
+            // Linearization point - the key is in the set once level 0 links it
+            if (NEXT.compareAndSet(preds[0].next, 0, succs[0], n)) {
+                break;
+            }
+        }
+
+        size.incrementAndGet();
+
+        link:
+        for (int lvl = 1; lvl < h; lvl++) {
+            while (!NEXT.compareAndSet(preds[lvl].next, lvl, succs[lvl], n)) {
+                find(key, top, preds, succs);
+                Node cur = next(n, lvl);
+
+                // A remove() marked this level first - stop raising the node
+                if ((cur != null && cur.marker) || !NEXT.compareAndSet(n.next, lvl, cur, succs[lvl])) {
+                    break link;
+                }
+            }
+        }
+
+        height.accumulateAndGet(h, Math::max);
+    }
+
+    // Removes key, returns true if it was present.
+    public boolean remove(int key) {
+        int top = height.get();
+        Node[] preds = new Node[top];
+        Node[] succs = new Node[top];
+        find(key, top, preds, succs);
+        Node n = succs[0];
+
+        if (n == null || n.key != key) {
+            return false;
+        }
+
+        // Upper levels first, so a node that is live on level 0 is live everywhere
+        // it is linked
+        for (int lvl = n.next.length - 1; lvl >= 0; lvl--) {
+            while (true) {
+                Node succ = next(n, lvl);
+
+                if (succ != null && succ.marker) {
+                    if (lvl == 0) {
+                        return false;   // another remove() got there first
+                    }
+
+                    break;
+                }
+
+                if (NEXT.compareAndSet(n.next, lvl, succ, new Node(succ))) {
+                    break;
+                }
+            }
+        }
+
+        size.decrementAndGet();
+
+        // Unlink, searching every level the node may be linked on
+        int levels = Math.max(top, n.next.length);
+        find(key, levels, new Node[levels], new Node[levels]);
+        return true;
+    }
+
+    // Geometric with p = 1/2, capped at MAX_LEVEL
+    private static int randomHeight() {
+        int bits = ThreadLocalRandom.current().nextInt();
+        return Math.min(MAX_LEVEL, 1 + Integer.numberOfTrailingZeros(bits | (1 << (MAX_LEVEL - 1))));
+    }
+
+    public int size() {
+        return size.get();
+    }
+
+    // Node (12 B header + key + link array ref + marker flag, aligned to 24 B)
+    // plus its forward-link array (16 B + 4 B per level) for every key, found by
+    // walking level 0
+    public long memoryBytes() {
+        long bytes = 24L + 16L + 4L * MAX_LEVEL;
+
+        for (Node n = live(next(head, 0), 0); n != null; n = live(next(n, 0), 0)) {
+            bytes += 24L + ((16L + 4L * n.next.length + 7) & ~7L);
+        }
+
+        return bytes;
+    }
+}
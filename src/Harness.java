@@ -0,0 +1,322 @@
+import java.io.*;
+import java.lang.management.ManagementFactory;
+import java.util.*;
+
+// JMH-style harness. Every (structure, operation, N) trial runs in its own forked JVMs
+// with warmup iterations first, so JIT tiering and GC from one structure can't leak
+// into the next one's numbers.
+//
+// Usage: java -cp bin [-Dsizes=1000,10000] [-Dforks=2] [-Dwarmup=5] [-Diterations=5] Harness
+public class Harness {
+
+    // Configuration
+    static final int FORKS        = Integer.getInteger("forks", 2);
+    static final int WARMUP       = Integer.getInteger("warmup", 5);
+    static final int ITERATIONS   = Integer.getInteger("iterations", 5);
+    static final int ITERATION_MS = Integer.getInteger("iterationMs", 200);
+    static final int SAMPLE_BATCH = Integer.getInteger("sampleBatch", 32);
+
+    static final String SIZES      = System.getProperty("sizes", "1000,10000,100000,1000000");
+    static final String MODES      = System.getProperty("modes", "avgt,sample");
+    static final String OPERATIONS = System.getProperty("ops", "insert,contains");
+    static final String STRUCTURES = System.getProperty("structures", IntSets.DEFAULT_STRUCTURES);
+    static final String JVM_ARGS   = System.getProperty("jvmArgs", "");
+
+    // Results are folded into this so the JIT can't drop the timed calls
+    static volatile long sink;
+
+    // State fixture, like a JMH @State(Scope.Thread) class. Each fork only ever
+    // sees one IntSet implementation, so the interface calls stay monomorphic.
+    static class Fixture {
+        final IntSetProvider provider;
+        Benchmark.ScaleCfg cfg;
+        IntSet set;
+        int[] insertKeys;
+        int[] searchKeys;
+
+        Fixture(IntSetProvider provider) {
+            this.provider = provider;
+        }
+
+        // Level.Trial - keys are generated once per fork
+        void setupTrial(int n) {
+            cfg = Benchmark.ScaleCfg.forN(n);
+            insertKeys = Benchmark.randomUniqueInts(n, 100 + n);
+            searchKeys = Benchmark.halfExistingHalfMissing(insertKeys, n, 200 + n);
+        }
+
+        // Level.Iteration - fresh, empty structure
+        void reset() {
+            if (set != null) {
+                set.close();
+            }
+
+            set = provider.create(cfg);
+        }
+
+        void insert(int key) {
+            set.insert(key);
+        }
+
+        boolean contains(int key) {
+            return set.contains(key);
+        }
+    }
+
+    static Fixture fixture(String name) {
+        return new Fixture(IntSets.get(name));
+    }
+
+    // Long buffer for sample-time mode
+    static class Samples {
+        long[] v = new long[1024];
+        int size;
+
+        void add(long x) {
+            if (size == v.length) {
+                v = Arrays.copyOf(v, size * 2);
+            }
+
+            v[size++] = x;
+        }
+
+        long[] sorted() {
+            long[] s = Arrays.copyOf(v, size);
+            Arrays.sort(s);
+            return s;
+        }
+    }
+
+    // One timed pass over the keys. Returns elapsed nanos; in sample mode every
+    // SAMPLE_BATCH ops are timed separately and recorded as ns/op.
+    static long pass(Fixture f, int n, String op, Samples samples) {
+        long hits = 0;
+
+        if (op.equals("insert")) {
+            f.reset();
+        }
+
+        int[] keys = op.equals("insert") ? f.insertKeys : f.searchKeys;
+        long start = System.nanoTime();
+
+        if (samples == null) {
+            if (op.equals("insert")) {
+                for (int k : keys) {
+                    f.insert(k);
+                }
+            } else {
+                for (int q : keys) {
+                    if (f.contains(q)) {
+                        hits++;
+                    }
+                }
+            }
+        } else {
+            for (int i = 0; i < keys.length; i += SAMPLE_BATCH) {
+                int end = Math.min(keys.length, i + SAMPLE_BATCH);
+                long t0 = System.nanoTime();
+
+                if (op.equals("insert")) {
+                    for (int j = i; j < end; j++) {
+                        f.insert(keys[j]);
+                    }
+                } else {
+                    for (int j = i; j < end; j++) {
+                        if (f.contains(keys[j])) {
+                            hits++;
+                        }
+                    }
+                }
+
+                samples.add((System.nanoTime() - t0) / (end - i));
+            }
+        }
+
+        long elapsed = System.nanoTime() - start;
+        sink += hits;
+        return elapsed;
+    }
+
+    // Runs inside a forked JVM: warmup, then measured iterations. Each iteration
+    // repeats passes until ITERATION_MS has elapsed. Prints one "RESULT" line per
+    // measured iteration for the parent to collect.
+    static void runChild(String ds, String op, int n, String mode) {
+        Fixture f = fixture(ds);
+        f.setupTrial(n);
+
+        if (op.equals("contains")) {
+            f.reset();
+
+            for (int k : f.insertKeys) {
+                f.insert(k);
+            }
+        }
+
+        for (int it = -WARMUP; it < ITERATIONS; it++) {
+            Samples samples = mode.equals("sample") ? new Samples() : null;
+            long nanos = 0, ops = 0;
+            long deadline = System.nanoTime() + ITERATION_MS * 1_000_000L;
+
+            do {
+                nanos += pass(f, n, op, samples);
+                ops += n;
+            } while (System.nanoTime() < deadline);
+
+            if (it < 0) {
+                continue; // warmup
+            }
+
+            if (samples == null) {
+                System.out.printf(Locale.ROOT, "RESULT %.3f%n", (double) nanos / ops);
+            } else {
+                long[] s = samples.sorted();
+                System.out.printf(Locale.ROOT, "RESULT %d %d %d %d%n",
+                    Benchmark.Measure.percentile(s, 50), Benchmark.Measure.percentile(s, 90), Benchmark.Measure.percentile(s, 99), s[s.length - 1]);
+            }
+        }
+    }
+
+    // Launches one fork of this class and returns its RESULT lines
+    static List<double[]> fork(String ds, String op, int n, String mode) throws IOException, InterruptedException {
+        List<String> cmd = new ArrayList<>();
+        cmd.add(javaBin());
+
+        // Forks inherit preview mode so engines built on preview APIs (offheap) load
+        if (ManagementFactory.getRuntimeMXBean().getInputArguments().contains("--enable-preview")) {
+            cmd.add("--enable-preview");
+        }
+
+        for (String a : JVM_ARGS.trim().split("\\s+")) {
+            if (!a.isEmpty()) {
+                cmd.add(a);
+            }
+        }
+
+        cmd.add("-Dwarmup=" + WARMUP);
+        cmd.add("-Diterations=" + ITERATIONS);
+        cmd.add("-DiterationMs=" + ITERATION_MS);
+        cmd.add("-DsampleBatch=" + SAMPLE_BATCH);
+        cmd.add("-cp");
+        cmd.add(System.getProperty("java.class.path"));
+        cmd.add("Harness");
+        cmd.add("--child");
+        cmd.add(ds);
+        cmd.add(op);
+        cmd.add(Integer.toString(n));
+        cmd.add(mode);
+
+        Process p = new ProcessBuilder(cmd).redirectErrorStream(true).start();
+        List<double[]> out = new ArrayList<>();
+
+        try (BufferedReader br = new BufferedReader(new InputStreamReader(p.getInputStream()))) {
+            String line;
+
+            while ((line = br.readLine()) != null) {
+                if (line.startsWith("RESULT ")) {
+                    out.add(parseResult(line));
+                } else {
+                    System.out.println("  [fork] " + line);
+                }
+            }
+        }
+
+        if (p.waitFor() != 0) {
+            throw new IllegalStateException("Fork failed for " + ds + "." + op + " N=" + n);
+        }
+
+        return out;
+    }
+
+    static String javaBin() {
+        return System.getProperty("java.home") + File.separator + "bin" + File.separator + "java";
+    }
+
+    static double[] parseResult(String line) {
+        return Arrays.stream(line.substring(7).trim().split(" ")).mapToDouble(Double::parseDouble).toArray();
+    }
+
+    // Runs every measured iteration either in forks or (forks=0) in this JVM
+    static List<double[]> trial(String ds, String op, int n, String mode) throws IOException, InterruptedException {
+        if (FORKS > 0) {
+            List<double[]> all = new ArrayList<>();
+
+            for (int i = 0; i < FORKS; i++) {
+                all.addAll(fork(ds, op, n, mode));
+            }
+
+            return all;
+        }
+
+        ByteArrayOutputStream buf = new ByteArrayOutputStream();
+        PrintStream old = System.out;
+        System.setOut(new PrintStream(buf, true));
+
+        try {
+            runChild(ds, op, n, mode);
+        } finally {
+            System.setOut(old);
+        }
+
+        List<double[]> out = new ArrayList<>();
+
+        for (String line : buf.toString().split("\\R")) {
+            if (line.startsWith("RESULT ")) {
+                out.add(parseResult(line));
+            }
+        }
+
+        return out;
+    }
+
+    // Main
+    public static void main(String[] args) throws Exception {
+        if (args.length == 5 && args[0].equals("--child")) {
+            runChild(args[1], args[2], Integer.parseInt(args[3]), args[4]);
+            return;
+        }
+
+        System.out.printf("# Forks: %d, Warmup: %d x %d ms, Measurement: %d x %d ms%n",
+            FORKS, WARMUP, ITERATION_MS, ITERATIONS, ITERATION_MS);
+        System.out.printf("%-26s %-7s %10s %5s %12s %11s  %s%n",
+            "Benchmark", "Mode", "N", "Cnt", "Score", "Error", "Units");
+
+        for (String mode : MODES.split(",")) {
+            for (String n : SIZES.split(",")) {
+                for (String ds : STRUCTURES.split(",")) {
+                    for (String op : OPERATIONS.split(",")) {
+                        List<double[]> r = trial(ds, op, Integer.parseInt(n.trim()), mode);
+                        report(ds + "." + op, mode, n.trim(), r);
+                    }
+                }
+            }
+        }
+    }
+
+    static void report(String name, String mode, String n, List<double[]> r) {
+        if (mode.equals("avgt")) {
+            double[] s = r.stream().mapToDouble(a -> a[0]).toArray();
+            double mean = Arrays.stream(s).average().orElse(0);
+            double var = 0;
+
+            for (double x : s) {
+                var += (x - mean) * (x - mean);
+            }
+
+            // ~99% interval, as JMH prints next to the score
+            double err = s.length > 1 ? 2.576 * Math.sqrt(var / (s.length - 1)) / Math.sqrt(s.length) : 0;
+            System.out.printf(Locale.ROOT, "%-26s %-7s %10s %5d %12.3f +- %8.3f  ns/op%n",
+                name, mode, n, s.length, mean, err);
+            return;
+        }
+
+        // Sample mode - average each percentile over all measured iterations
+        String[] labels = {"p0.50", "p0.90", "p0.99", "p1.00"};
+
+        for (int i = 0; i < labels.length; i++) {
+            final int col = i;
+            double mean = r.stream().mapToDouble(a -> a[col]).average().orElse(0);
+            System.out.printf(Locale.ROOT, "%-26s %-7s %10s %5d %12.3f %11s  ns/op%n",
+                name + ":" + labels[i], mode, n, r.size(), mean, "");
+        }
+    }
+}
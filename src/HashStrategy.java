@@ -0,0 +1,52 @@
+import java.util.Locale;
+
+// How the modulo-sized hash tables (chaining, flat chaining, quadratic) turn a
+// key into a slot in [0, m):
+//   MODULO    - key % m, the original scheme. Keys that share a residue mod m
+//               (multiples of m, strides with a common factor) all collide.
+//   FIBONACCI - multiply by 2^32 / golden ratio, then map the 32-bit product
+//               onto [0, m) with a multiply-high instead of a division. With m
+//               a power of two that is exactly Fibonacci hashing (top log2 m
+//               bits of the product); with a prime m it still uses every bit.
+//   MURMUR3   - Murmur3's fmix32 finalizer (full avalanche: every input bit
+//               flips each output bit with probability ~1/2), then the same
+//               multiply-high range reduction.
+//
+// An enum switched on a final field rather than an interface, so the call stays
+// monomorphic and inlines no matter how many strategies a run mixes.
+// -Dhash=modulo|fibonacci|murmur3 picks the default for the registry engines.
+enum HashStrategy {
+    MODULO, FIBONACCI, MURMUR3;
+
+    static final HashStrategy DEFAULT = valueOf(System.getProperty("hash", "modulo").toUpperCase(Locale.ROOT));
+
+    static final int GOLDEN = 0x9E3779B9;
+
+    int index(int key, int m) {
+        switch (this) {
+            case FIBONACCI:
+                return reduce(key * GOLDEN, m);
+
+            case MURMUR3:
+                return reduce(fmix32(key), m);
+
+            default:
+                int hk = key % m;
+                return hk < 0 ? hk + m : hk;
+        }
+    }
+
+    // Maps a uniformly distributed 32-bit value onto [0, m) (Lemire's fastrange)
+    static int reduce(int h, int m) {
+        return (int) (((h & 0xFFFF_FFFFL) * m) >>> 32);
+    }
+
+    static int fmix32(int h) {
+        h ^= h >>> 16;
+        h *= 0x85EB_CA6B;
+        h ^= h >>> 13;
+        h *= 0xC2B2_AE35;
+        h ^= h >>> 16;
+        return h;
+    }
+}
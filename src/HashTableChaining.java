@@ -1,47 +1,282 @@
 import java.util.*;
 
-class HashTableChaining {
-    private final List<Integer>[] buckets;
-    private final int m;
+class HashTableChaining implements IntSet {
+    static final double DEFAULT_MAX_LOAD = 1.0;
+    static final int DEFAULT_SIZE = 17;
+
+    // Buckets are allocated on first insert, so empty buckets cost one null slot
+    // and growing the table does not allocate 2m lists up front.
+    private List<Integer>[] buckets;
+    private int m;
+    private int size;
+
+    private final double maxLoad;
+    private final int migrateStep;
+    private final HashStrategy hash;
+
+    // While resizing, buckets below migrateIdx have been moved into `buckets`
+    // (and cleared here); the rest are still served from the old array.
+    private List<Integer>[] oldBuckets;
+    private int oldM;
+    private int migrateIdx;
+    private int resizes;
+    private final Metrics chainNodes = Metrics.create();
+
+    // containsAll gathers the buckets of BATCH_LANES keys before walking any chain
+    static final int BATCH_LANES = 16;
+    private final List<Integer>[] laneBucket = newBuckets(BATCH_LANES);
+
+    public HashTableChaining() {
+        this(DEFAULT_SIZE, DEFAULT_MAX_LOAD);
+    }
 
-    @SuppressWarnings("unchecked")
     public HashTableChaining(int m) {
-        this.m = m;
-        buckets = new List[m];
-        
-        for (int i = 0; i < m; i++) {
-            buckets[i] = new LinkedList<>();
+        this(m, DEFAULT_MAX_LOAD);
+    }
+
+    public HashTableChaining(int m, double maxLoad) {
+        this(m, maxLoad, HashStrategy.DEFAULT);
+    }
+
+    public HashTableChaining(int m, double maxLoad, HashStrategy hash) {
+        if (m <= 0) {
+            throw new IllegalArgumentException("Table size must be positive");
+        }
+
+        if (!(maxLoad > 0)) {
+            throw new IllegalArgumentException("Max load factor must be positive");
         }
+
+        this.m = m;
+        this.buckets = newBuckets(m);
+        this.maxLoad = maxLoad;
+        this.hash = hash;
+
+        // Old buckets moved per insert, so migration finishes well before the new
+        // table reaches its own threshold.
+        this.migrateStep = Math.max(4, (int) Math.ceil(2 / maxLoad));
     }
 
-    private int h(int key) {
-        int hk = key % m;
-        
-        if (hk < 0) {
-            hk += m;
+    @SuppressWarnings("unchecked")
+    private static List<Integer>[] newBuckets(int m) {
+        return new List[m];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int capacity() {
+        return m;
+    }
+
+    public int resizes() {
+        return resizes;
+    }
+
+    // Current-table chain entries compared per contains() call
+    public Map<String, Metrics> metrics() {
+        return chainNodes == null ? Map.of() : Map.of("chain nodes/lookup", chainNodes);
+    }
+
+    public boolean isResizing() {
+        return oldBuckets != null;
+    }
+
+    // Chain entries compared by a lookup of key in the current table: its
+    // position in the chain on a hit, the whole chain on a miss
+    public int probes(int key) {
+        List<Integer> b = buckets[h(key, m)];
+        int seen = 0;
+
+        if (b != null) {
+            for (int v : b) {
+                seen++;
+
+                if (v == key) {
+                    break;
+                }
+            }
         }
-        
-        return hk;
+
+        return seen;
+    }
+
+    private int h(int key, int m) {
+        return hash.index(key, m);
     }
 
     public void insert(int key) {
-        int i = h(key);
+        if (oldBuckets != null) {
+            migrate(migrateStep);
+
+            if (oldBuckets != null && chainContains(oldBucket(key), key)) {
+                return;
+            }
+        }
+
+        if (size + 1 > maxLoad * m) {
+            // grow() moves the current table to the old side, where add() can't
+            // see a duplicate
+            if (chainContains(buckets[h(key, m)], key)) {
+                return;
+            }
+
+            grow(2 * m + 1);
+        }
+
+        if (add(buckets, m, key)) {
+            size++;
+        }
+    }
+
+    // Presizes for the whole batch up front (one full rehash instead of a chain of
+    // incremental ones), then adds without the per-insert migration and load checks.
+    public void insertAll(int[] keys) {
+        if (oldBuckets != null) {
+            migrate(oldM);
+        }
+
+        long need = (long) size + keys.length;
+        long newM = m;
+
+        while (need > maxLoad * newM) {
+            newM = 2 * newM + 1;
+        }
+
+        if (newM != m) {
+            grow((int) Math.min(Integer.MAX_VALUE - 8, newM));
+            migrate(oldM);
+        }
+
+        for (int k : keys) {
+            if (add(buckets, m, k)) {
+                size++;
+            }
+        }
+    }
+
+    private boolean add(List<Integer>[] buckets, int m, int key) {
+        int i = h(key, m);
         List<Integer> b = buckets[i];
-        
+
+        if (b == null) {
+            b = buckets[i] = new LinkedList<>();
+        }
+
         for (int v : b) {
             if (v == key) {
-                return;
+                return false;
             }
         }
-        
+
         b.add(key);
+        return true;
+    }
+
+    // Old bucket for key if it has not been migrated yet, else null
+    private List<Integer> oldBucket(int key) {
+        int i = h(key, oldM);
+        return i >= migrateIdx ? oldBuckets[i] : null;
+    }
+
+    // Starts a new incremental resize into a table of newM buckets. A resize still
+    // in progress is finished first.
+    private void grow(int newM) {
+        if (oldBuckets != null) {
+            migrate(oldM);
+        }
+
+        oldBuckets = buckets;
+        oldM = m;
+        migrateIdx = 0;
+
+        m = newM;
+        buckets = newBuckets(m);
+        resizes++;
+    }
+
+    // Moves up to `steps` old buckets into the current table.
+    private void migrate(int steps) {
+        int end = Math.min(oldM, migrateIdx + steps);
+
+        for (; migrateIdx < end; migrateIdx++) {
+            List<Integer> b = oldBuckets[migrateIdx];
+
+            if (b == null) {
+                continue;
+            }
+
+            for (int v : b) {
+                add(buckets, m, v);
+            }
+
+            oldBuckets[migrateIdx] = null;
+        }
+
+        if (migrateIdx == oldM) {
+            oldBuckets = null;
+        }
     }
 
     public boolean contains(int key) {
-        int i = h(key);
-        
-        for (int v : buckets[i]) {
-            if (v == key) {
+        if (oldBuckets != null && chainContains(oldBucket(key), key)) {
+            return true;
+        }
+
+        return chainContains(buckets[h(key, m)], key, chainNodes);
+    }
+
+    // Two passes per group: first load every key's bucket slot and list header
+    // (independent loads, so their misses overlap, and empty buckets answer right
+    // there), then walk the non-empty chains. The LinkedList nodes themselves can
+    // only be followed one at a time. Falls back to contains() while resizing.
+    public void containsAll(int[] keys, int from, int to, boolean[] out) {
+        if (oldBuckets != null) {
+            IntSet.super.containsAll(keys, from, to, out);
+            return;
+        }
+
+        for (int base = from; base < to; base += BATCH_LANES) {
+            int end = Math.min(to, base + BATCH_LANES);
+
+            for (int i = base; i < end; i++) {
+                List<Integer> b = buckets[h(keys[i], m)];
+                laneBucket[i - base] = b != null && !b.isEmpty() ? b : null;
+            }
+
+            for (int i = base; i < end; i++) {
+                List<Integer> b = laneBucket[i - base];
+                out[i] = b != null && chainContains(b, keys[i]);
+                laneBucket[i - base] = null;
+            }
+        }
+    }
+
+    public boolean remove(int key) {
+        if (oldBuckets != null) {
+            migrate(migrateStep);
+        }
+
+        // A key lives in exactly one of the two tables
+        boolean removed = (oldBuckets != null && chainRemove(oldBucket(key), key))
+                          || chainRemove(buckets[h(key, m)], key);
+
+        if (removed) {
+            size--;
+        }
+
+        return removed;
+    }
+
+    private static boolean chainRemove(List<Integer> b, int key) {
+        if (b == null) {
+            return false;
+        }
+
+        for (Iterator<Integer> it = b.iterator(); it.hasNext(); ) {
+            if (it.next() == key) {
+                it.remove();
                 return true;
             }
         }
@@ -49,8 +284,74 @@ class HashTableChaining {
         return false;
     }
 
+    private static boolean chainContains(List<Integer> b, int key) {
+        return chainContains(b, key, null);
+    }
+
+    // nodes, if not null, records the chain entries compared
+    private static boolean chainContains(List<Integer> b, int key, Metrics nodes) {
+        int seen = 0;
+        boolean found = false;
+
+        if (b != null) {
+            for (int v : b) {
+                seen++;
+
+                if (v == key) {
+                    found = true;
+                    break;
+                }
+            }
+        }
+
+        if (Metrics.ENABLED && nodes != null) {
+            nodes.record(seen);
+        }
+
+        return found;
+    }
+
+    // Estimated retained size with compressed oops: the bucket array(s), one
+    // LinkedList (32 B) per non-empty bucket, and a Node (24 B) plus a boxed
+    // Integer (16 B) per key.
+    public long memoryBytes() {
+        long bytes = 16L + 4L * m;
+        int lists = countLists(buckets);
+
+        if (oldBuckets != null) {
+            bytes += 16L + 4L * oldM;
+            lists += countLists(oldBuckets);
+        }
+
+        return bytes + 32L * lists + (24L + 16L) * size;
+    }
+
+    private static int countLists(List<Integer>[] buckets) {
+        int n = 0;
+
+        for (List<Integer> b : buckets) {
+            if (b != null) {
+                n++;
+            }
+        }
+
+        return n;
+    }
+
+    // hist[len] = number of buckets in the current table whose chain has exactly
+    // len keys; the last slot collects every chain of length >= maxLen.
+    public int[] chainLengthHistogram(int maxLen) {
+        int[] hist = new int[maxLen + 1];
+
+        for (List<Integer> b : buckets) {
+            hist[Math.min(b == null ? 0 : b.size(), maxLen)]++;
+        }
+
+        return hist;
+    }
+
     public void getChain(int index) {
-        if (index < 0 || index >= m) {
+        if (index < 0 || index >= m || buckets[index] == null) {
             System.out.println("[]");
             return;
         }
@@ -0,0 +1,243 @@
+import java.util.*;
+
+// Separate chaining without per-key objects. Entry i lives in keys[i] and next[i]
+// links to the following entry of the same chain; head[b] points at the first
+// entry of bucket b. Links are 1-based so 0 means "end of chain" and a freshly
+// allocated int[] is already an empty table.
+class HashTableChainingFlat implements IntSet {
+    static final double DEFAULT_MAX_LOAD = 1.0;
+    static final int DEFAULT_SIZE = 17;
+
+    private int[] head;
+    private int[] keys;
+    private int[] next;
+    private int m;
+    private int size;
+
+    private final double maxLoad;
+    private final HashStrategy hash;
+    private int resizes;
+
+    public HashTableChainingFlat() {
+        this(DEFAULT_SIZE, DEFAULT_MAX_LOAD);
+    }
+
+    public HashTableChainingFlat(int m) {
+        this(m, DEFAULT_MAX_LOAD);
+    }
+
+    public HashTableChainingFlat(int m, double maxLoad) {
+        this(m, maxLoad, HashStrategy.DEFAULT);
+    }
+
+    public HashTableChainingFlat(int m, double maxLoad, HashStrategy hash) {
+        if (m <= 0) {
+            throw new IllegalArgumentException("Table size must be positive");
+        }
+
+        if (!(maxLoad > 0)) {
+            throw new IllegalArgumentException("Max load factor must be positive");
+        }
+
+        this.m = m;
+        this.maxLoad = maxLoad;
+        this.hash = hash;
+        this.head = new int[m];
+
+        int cap = (int) Math.min(Integer.MAX_VALUE - 8, Math.max(16, (long) (m * maxLoad)));
+        this.keys = new int[cap];
+        this.next = new int[cap];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int capacity() {
+        return m;
+    }
+
+    public int resizes() {
+        return resizes;
+    }
+
+    private int h(int key, int m) {
+        return hash.index(key, m);
+    }
+
+    public void insert(int key) {
+        int b = h(key, m);
+
+        for (int e = head[b]; e != 0; e = next[e - 1]) {
+            if (keys[e - 1] == key) {
+                return;
+            }
+        }
+
+        if (size + 1 > maxLoad * m) {
+            rehash(2 * m + 1);
+            b = h(key, m);
+        }
+
+        if (size == keys.length) {
+            keys = Arrays.copyOf(keys, size * 2);
+            next = Arrays.copyOf(next, size * 2);
+        }
+
+        keys[size] = key;
+        next[size] = head[b];
+        head[b] = ++size;
+    }
+
+    // Presizes the bucket and entry arrays for the whole batch, then links each
+    // new key in without the per-insert load check.
+    public void insertAll(int[] keys) {
+        long need = (long) size + keys.length;
+        long newM = m;
+
+        while (need > maxLoad * newM) {
+            newM = 2 * newM + 1;
+        }
+
+        if (newM != m) {
+            rehash((int) Math.min(Integer.MAX_VALUE - 8, newM));
+        }
+
+        if (need > this.keys.length) {
+            int cap = (int) Math.min(Integer.MAX_VALUE - 8, need);
+            this.keys = Arrays.copyOf(this.keys, cap);
+            this.next = Arrays.copyOf(this.next, cap);
+        }
+
+        outer:
+        for (int key : keys) {
+            int b = h(key, m);
+
+            for (int e = head[b]; e != 0; e = next[e - 1]) {
+                if (this.keys[e - 1] == key) {
+                    continue outer;
+                }
+            }
+
+            this.keys[size] = key;
+            next[size] = head[b];
+            head[b] = ++size;
+        }
+    }
+
+    public boolean contains(int key) {
+        for (int e = head[h(key, m)]; e != 0; e = next[e - 1]) {
+            if (keys[e - 1] == key) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    // Unlinks the entry, then moves the last entry into its slot so entries stay
+    // dense in [0, size) and rehash can keep walking a prefix of the arrays.
+    public boolean remove(int key) {
+        int b = h(key, m);
+        int prev = 0;
+
+        for (int e = head[b]; e != 0; prev = e, e = next[e - 1]) {
+            if (keys[e - 1] != key) {
+                continue;
+            }
+
+            if (prev == 0) {
+                head[b] = next[e - 1];
+            } else {
+                next[prev - 1] = next[e - 1];
+            }
+
+            int last = size--;
+
+            if (e != last) {
+                relink(last, e);
+            }
+
+            return true;
+        }
+
+        return false;
+    }
+
+    // Moves entry `from` to slot `to` and repoints whatever linked to it
+    private void relink(int from, int to) {
+        int b = h(keys[from - 1], m);
+
+        if (head[b] == from) {
+            head[b] = to;
+        } else {
+            int p = head[b];
+
+            while (next[p - 1] != from) {
+                p = next[p - 1];
+            }
+
+            next[p - 1] = to;
+        }
+
+        keys[to - 1] = keys[from - 1];
+        next[to - 1] = next[from - 1];
+    }
+
+    // Relinks every entry into a new head array. Entries never move, so this is
+    // one pass over two int arrays with no allocation per key.
+    private void rehash(int newM) {
+        m = newM;
+        head = new int[m];
+
+        for (int i = 0; i < size; i++) {
+            int b = h(keys[i], m);
+            next[i] = head[b];
+            head[b] = i + 1;
+        }
+
+        resizes++;
+    }
+
+    // Shallow size of the three int[] arrays (16-byte array headers)
+    public long memoryBytes() {
+        return 3 * 16L + 4L * head.length + 4L * keys.length + 4L * next.length;
+    }
+
+    // hist[len] = number of buckets whose chain has exactly len keys; the last
+    // slot collects every chain of length >= maxLen.
+    public int[] chainLengthHistogram(int maxLen) {
+        int[] hist = new int[maxLen + 1];
+
+        for (int b = 0; b < m; b++) {
+            int len = 0;
+
+            for (int e = head[b]; e != 0; e = next[e - 1]) {
+                len++;
+            }
+
+            hist[Math.min(len, maxLen)]++;
+        }
+
+        return hist;
+    }
+
+    public void getChain(int index) {
+        if (index < 0 || index >= m) {
+            System.out.println("[]");
+            return;
+        }
+
+        StringBuilder sb = new StringBuilder("[");
+
+        for (int e = head[index]; e != 0; e = next[e - 1]) {
+            if (sb.length() > 1) {
+                sb.append(", ");
+            }
+
+            sb.append(keys[e - 1]);
+        }
+
+        System.out.println(sb.append(']'));
+    }
+}
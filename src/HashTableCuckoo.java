@@ -0,0 +1,241 @@
+import java.util.Map;
+
+// Cuckoo hashing on a primitive int[]: every key lives in one of `ways`
+// candidate buckets, one per hash function, and each bucket holds `slots` keys
+// side by side. A lookup reads at most ways * slots slots whatever the load -
+// worst-case O(1), hit or miss. The cost moves to insert: when all candidate
+// buckets are full the key evicts a random resident, which moves to one of its
+// own candidates, and so on. A walk longer than MAX_KICKS means the table is
+// too full for this layout, and it doubles and rehashes.
+//
+// Layouts and the load they sustain before inserts start failing:
+//   2 ways x 1 slot  - about 0.5
+//   3 ways x 1 slot  - about 0.9
+//   2 ways x 4 slots - about 0.98 (a bucket is 16 bytes, one cache line)
+//
+// The hashes are multiply-shift on Murmur3's finalizer with a different odd
+// multiplier per way, so the candidates of a key are independent of each other.
+class HashTableCuckoo implements IntSet {
+    static final int EMPTY = 0;
+    static final int MAX_KICKS = 500;
+
+    private static final int[] MULTIPLIERS = {0x9E3779B9, 0x85EBCA6B, 0xC2B2AE35, 0x27D4EB2F};
+
+    private int[] table;
+    private final int ways;
+    private final int slots;
+    private int shift;
+    private int size;
+    private int rehashes;
+    private int random = 0x2545F491;
+    private final Metrics lookupProbes = Metrics.create();
+
+    // The key evicted last by a place() that gave up
+    private int homeless;
+
+    // The key equal to EMPTY is tracked out of band
+    private boolean hasEmptyKey;
+
+    public HashTableCuckoo(int m, int ways, int slots) {
+        if (m <= 0) {
+            throw new IllegalArgumentException("Table size must be positive");
+        }
+
+        if (ways < 2 || ways > MULTIPLIERS.length) {
+            throw new IllegalArgumentException("Ways must be 2.." + MULTIPLIERS.length + ": " + ways);
+        }
+
+        if (slots <= 0) {
+            throw new IllegalArgumentException("Slots per bucket must be positive");
+        }
+
+        long buckets = Math.max(2, Long.highestOneBit(Math.max(1, (m + slots - 1) / slots - 1)) << 1);
+
+        if (buckets * slots > Integer.MAX_VALUE - 8) {
+            throw new IllegalArgumentException("Table size too large: " + m);
+        }
+
+        this.ways = ways;
+        this.slots = slots;
+        allocate((int) buckets);
+    }
+
+    private void allocate(int buckets) {
+        table = new int[buckets * slots];
+        shift = 32 - Integer.numberOfTrailingZeros(buckets);
+    }
+
+    public int capacity() {
+        return table.length;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    // Times the table had to double because an insert found no free slot
+    public int rehashes() {
+        return rehashes;
+    }
+
+    // Slots examined per contains() call (the EMPTY key takes none and isn't counted)
+    public Map<String, Metrics> metrics() {
+        return lookupProbes == null ? Map.of() : Map.of("probes/lookup", lookupProbes);
+    }
+
+    public long memoryBytes() {
+        return 16L + 4L * table.length;
+    }
+
+    // First slot of the way-th candidate bucket of a key whose mixed hash is mix
+    private int bucket(int mix, int way) {
+        return ((mix * MULTIPLIERS[way]) >>> shift) * slots;
+    }
+
+    public void insert(int key) {
+        if (key == EMPTY) {
+            size += hasEmptyKey ? 0 : 1;
+            hasEmptyKey = true;
+            return;
+        }
+
+        if (position(key) != 0) {
+            return;
+        }
+
+        if (!place(key)) {
+            grow(homeless);
+        }
+
+        size++;
+    }
+
+    public boolean contains(int key) {
+        if (key == EMPTY) {
+            return hasEmptyKey;
+        }
+
+        int p = position(key);
+
+        if (Metrics.ENABLED && lookupProbes != null) {
+            lookupProbes.record(p == 0 ? ways * slots : p);
+        }
+        return p != 0;
+    }
+
+    public boolean remove(int key) {
+        if (key == EMPTY) {
+            boolean had = hasEmptyKey;
+            hasEmptyKey = false;
+            size -= had ? 1 : 0;
+            return had;
+        }
+
+        int mix = HashStrategy.fmix32(key);
+
+        for (int w = 0; w < ways; w++) {
+            int base = bucket(mix, w);
+
+            for (int s = 0; s < slots; s++) {
+                if (table[base + s] == key) {
+                    table[base + s] = EMPTY;
+                    size--;
+                    return true;
+                }
+            }
+        }
+
+        return false;
+    }
+
+    // Slots examined by a lookup of key, hit or miss
+    public int probes(int key) {
+        int p = position(key);
+        return p == 0 ? ways * slots : p;
+    }
+
+    // Where a lookup finds key, counting the slots it reads (1 = first slot of
+    // the first candidate bucket), or 0 if key is absent. Records nothing, so
+    // insert() and probes() don't show up in the lookup metrics.
+    private int position(int key) {
+        int mix = HashStrategy.fmix32(key);
+
+        for (int w = 0; w < ways; w++) {
+            int base = bucket(mix, w);
+
+            for (int s = 0; s < slots; s++) {
+                if (table[base + s] == key) {
+                    return w * slots + s + 1;
+                }
+            }
+        }
+
+        return 0;
+    }
+
+    // Stores a key known to be absent: a free slot in any candidate bucket, or a
+    // random walk of evictions. Returns false after MAX_KICKS evictions, with the
+    // key still in hand left in homeless.
+    private boolean place(int key) {
+        for (int kick = 0; kick <= MAX_KICKS; kick++) {
+            int mix = HashStrategy.fmix32(key);
+
+            for (int w = 0; w < ways; w++) {
+                int base = bucket(mix, w);
+
+                for (int s = 0; s < slots; s++) {
+                    if (table[base + s] == EMPTY) {
+                        table[base + s] = key;
+                        return true;
+                    }
+                }
+            }
+
+            // xorshift32 - picks the candidate bucket and the slot to evict
+            random ^= random << 13;
+            random ^= random >>> 17;
+            random ^= random << 5;
+            int i = bucket(mix, Integer.remainderUnsigned(random, ways)) + Integer.remainderUnsigned(random >>> 8, slots);
+            int victim = table[i];
+            table[i] = key;
+            key = victim;
+        }
+
+        homeless = key;
+        return false;
+    }
+
+    // Doubles the bucket count until every stored key plus the one in hand fits
+    private void grow(int carried) {
+        int[] keys = new int[size + 1];
+        int n = 0;
+
+        for (int v : table) {
+            if (v != EMPTY) {
+                keys[n++] = v;
+            }
+        }
+
+        keys[n++] = carried;
+        int buckets = table.length / slots;
+
+        retry:
+        for (;;) {
+            if ((long) buckets * 2 * slots > Integer.MAX_VALUE - 8) {
+                throw new IllegalStateException("Hash table is full");
+            }
+
+            buckets *= 2;
+            allocate(buckets);
+            rehashes++;
+
+            for (int i = 0; i < n; i++) {
+                if (!place(keys[i])) {
+                    continue retry;
+                }
+            }
+
+            return;
+        }
+    }
+}
@@ -1,53 +1,234 @@
-class HashTableQuadratic {
-    private final Integer[] table;
-    private final boolean[] tomb;
-    private final int m;
+import java.util.Map;
+import java.util.function.IntConsumer;
+
+class HashTableQuadratic implements IntSet {
+    static final double DEFAULT_MAX_LOAD = 0.5;
+    static final int DEFAULT_SIZE = 17;
+
+    private Integer[] table;
+    private boolean[] tomb;
+    private int m;
+    private int used;   // occupied slots in table (keys + tombstones)
+    private int tombs;  // tombstones in table
+    private int size;   // distinct keys across table and oldTable
+
+    private final double maxLoad;
+    private final int migrateStep;
+    private final HashStrategy hash;
+
+    // While resizing, keys not yet moved still live here. Slots are copied (not
+    // cleared) so its probe sequences stay intact; remove() only ever turns an old
+    // slot into a tombstone.
+    private Integer[] oldTable;
+    private boolean[] oldTomb;
+    private int oldM;
+    private int migrateIdx;
+    private int resizes;
+    private int compactions;
+    private final Metrics lookupProbes = Metrics.create();
+
+    // containsAll lane state (see HashTableQuadraticInt.containsAll)
+    static final int BATCH_LANES = 16;
+    private final int[] laneKey = new int[BATCH_LANES];
+    private final int[] laneBase = new int[BATCH_LANES];
+
+    public HashTableQuadratic() {
+        this(DEFAULT_SIZE, DEFAULT_MAX_LOAD);
+    }
 
     public HashTableQuadratic(int m) {
+        this(m, DEFAULT_MAX_LOAD);
+    }
+
+    public HashTableQuadratic(int m, double maxLoad) {
+        this(m, maxLoad, HashStrategy.DEFAULT);
+    }
+
+    public HashTableQuadratic(int m, double maxLoad, HashStrategy hash) {
         if (m <= 0) {
             throw new IllegalArgumentException("Table size must be positive");
         }
 
+        // Quadratic probing over a prime modulus only guarantees a free slot
+        // while the table is at most half full.
+        if (!(maxLoad > 0 && maxLoad <= 0.5)) {
+            throw new IllegalArgumentException("Max load factor must be in (0, 0.5]");
+        }
+
         this.m = m;
         this.table = new Integer[m];
         this.tomb = new boolean[m];
+        this.maxLoad = maxLoad;
+        this.hash = hash;
+
+        // Scan enough old slots per insert that migration finishes within half of
+        // the inserts it takes to fill the new table up to its own threshold.
+        this.migrateStep = Math.max(4, (int) Math.ceil(2 / maxLoad));
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int capacity() {
+        return m;
+    }
+
+    // Integer[] and boolean[] slot arrays (plus the old array while resizing) and a
+    // 16-byte boxed Integer per key
+    public long memoryBytes() {
+        long bytes = (16L + 4L * m) + (16L + m) + 16L * size;
+
+        if (oldTable != null) {
+            bytes += (16L + 4L * oldM) + (16L + oldM);
+        }
+
+        return bytes;
+    }
+
+    public int resizes() {
+        return resizes;
+    }
+
+    // Rebuilds at the same size that only dropped tombstones
+    public int compactions() {
+        return compactions;
+    }
+
+    // Current-table probes per contains() call
+    public Map<String, Metrics> metrics() {
+        return lookupProbes == null ? Map.of() : Map.of("probes/lookup", lookupProbes);
     }
 
-    // Modulo-division hash - non-negative.
-    private int h(int key) {
-        int hk = key % m;
-        
-        if (hk < 0) {
-            hk += m;
+    public int tombstones() {
+        return tombs;
+    }
+
+    // Every key, in slot order (unordered). During a resize the old table's
+    // slots from migrateIdx on still hold keys not yet moved.
+    public void forEach(IntConsumer action) {
+        for (Integer v : table) {
+            if (v != null) {
+                action.accept(v);
+            }
         }
 
-        return hk;
+        if (oldTable != null) {
+            for (int i = migrateIdx; i < oldM; i++) {
+                if (oldTable[i] != null) {
+                    action.accept(oldTable[i]);
+                }
+            }
+        }
+    }
+
+    public boolean isResizing() {
+        return oldTable != null;
+    }
+
+    // Home slot of key in a table of m slots (see HashStrategy) - non-negative.
+    private int h(int key, int m) {
+        return hash.index(key, m);
     }
 
-    // Insert key using quadratic probing, ignores duplicates.
+    // Insert key using quadratic probing, ignores duplicates. Grows the table when
+    // the load factor would pass maxLoad; the rehash is spread over later inserts.
     public void insert(int key) {
-        int base = h(key);
+        if (oldTable != null) {
+            migrate(migrateStep);
+
+            if (oldTable != null && findIndex(oldTable, oldTomb, oldM, key) != -1) {
+                return; // duplicate - still waiting in the old table
+            }
+        }
+
+        if (used + 1 > maxLoad * m) {
+            // The current table is about to become the old one, where place()
+            // can't see a duplicate
+            if (findIndex(table, tomb, m, key) != -1) {
+                return;
+            }
+
+            // Tombstones count towards the load, so a churning table reaches the
+            // threshold without growing in keys. If at least half of the occupied
+            // slots are tombstones, rebuild at the same size instead of doubling.
+            if (2 * tombs >= used) {
+                rebuild(m);
+                compactions++;
+            } else {
+                rebuild(nextPrime(2 * m + 1));
+                resizes++;
+            }
+        }
+
+        int r = place(key);
+
+        if (r == -1) {
+            throw new IllegalStateException("Hash table is full");
+        }
+
+        size += r;
+    }
+
+    // Presizes for the whole batch (one full rehash instead of a chain of
+    // incremental ones), then places keys without the per-insert checks.
+    public void insertAll(int[] keys) {
+        if (oldTable != null) {
+            migrate(oldM);
+        }
+
+        long need = (long) used + keys.length;
+        int newM = m;
+
+        while (need > maxLoad * newM) {
+            newM = nextPrime(2 * newM + 1);
+        }
+
+        if (newM != m) {
+            rebuild(newM);
+            migrate(oldM);
+            resizes++;
+        }
+
+        for (int k : keys) {
+            int r = place(k);
+
+            if (r == -1) {
+                throw new IllegalStateException("Hash table is full");
+            }
+
+            size += r;
+        }
+    }
+
+    // Places key in the current table. Returns 1 if added, 0 if already present,
+    // -1 if the probe sequence found no free slot.
+    private int place(int key) {
+        int base = h(key, m);
         int j = 0;
         int firstTomb = -1;
 
         while (j < m) {
-            int idx = (base + j * j) % m;
+            int idx = (int) ((base + (long) j * j) % m);
             Integer v = table[idx];
 
-            if (v == null) {
+            if (v == null && !tomb[idx]) {
                 // Empty slot - place at first tombstone if seen, else here.
                 if (firstTomb != -1) {
                     idx = firstTomb;
+                    tombs--;
+                } else {
+                    used++;
                 }
 
                 table[idx] = key;
                 tomb[idx] = false;
-                return;
+                return 1;
             }
 
-            if (v == key) {
+            if (v != null && v == key) {
                 // Duplicate - ignore
-                return;
+                return 0;
             }
 
             // First tombstone to place new key there if later there's an empty slot
@@ -57,46 +238,233 @@ class HashTableQuadratic {
 
             j++;
         }
-        throw new IllegalStateException("Hash table is full");
+
+        if (firstTomb != -1) {
+            table[firstTomb] = key;
+            tomb[firstTomb] = false;
+            tombs--;
+            return 1;
+        }
+
+        return -1;
+    }
+
+    // Removes key from both tables (a migrated key is still readable in the old
+    // one), leaving tombstones so other probe sequences stay intact.
+    public boolean remove(int key) {
+        if (oldTable != null) {
+            migrate(migrateStep);
+        }
+
+        boolean removed = false;
+        int idx = findIndex(table, tomb, m, key);
+
+        if (idx != -1) {
+            table[idx] = null;
+            tomb[idx] = true;
+            tombs++;
+            removed = true;
+        }
+
+        if (oldTable != null && (idx = findIndex(oldTable, oldTomb, oldM, key)) != -1) {
+            oldTable[idx] = null;
+            oldTomb[idx] = true;
+            removed = true;
+        }
+
+        if (removed) {
+            size--;
+        }
+
+        return removed;
+    }
+
+    // Starts a new incremental rehash into a fresh table of newM slots, which
+    // drops every tombstone. A rehash still in progress is finished first.
+    private void rebuild(int newM) {
+        if (oldTable != null) {
+            migrate(oldM);
+        }
+
+        oldTable = table;
+        oldTomb = tomb;
+        oldM = m;
+        migrateIdx = 0;
+
+        m = newM;
+        table = new Integer[m];
+        tomb = new boolean[m];
+        used = 0;
+        tombs = 0;
+    }
+
+    // Copies up to `steps` slots of the old table into the current one.
+    private void migrate(int steps) {
+        int end = Math.min(oldM, migrateIdx + steps);
+
+        for (; migrateIdx < end; migrateIdx++) {
+            Integer v = oldTable[migrateIdx];
+
+            if (v != null) {
+                place(v);
+            }
+        }
+
+        if (migrateIdx == oldM) {
+            oldTable = null;
+            oldTomb = null;
+        }
     }
 
     // Returns true if the key is present.
     public boolean contains(int key) {
-        return findQuadraticIndex(key) != -1;
+        if (findIndex(table, tomb, m, key, lookupProbes) != -1) {
+            return true;
+        }
+
+        return oldTable != null && findIndex(oldTable, oldTomb, oldM, key) != -1;
     }
 
+    // Interleaved probing over groups of BATCH_LANES keys: every pass issues one
+    // slot load per unresolved lane, and each boxed hit costs a second, dependent
+    // load, so overlapping lanes hides both. While a resize is in progress keys may
+    // be in either table, so it falls back to one contains() per key.
+    public void containsAll(int[] keys, int from, int to, boolean[] out) {
+        if (oldTable != null) {
+            IntSet.super.containsAll(keys, from, to, out);
+            return;
+        }
+
+        for (int base = from; base < to; base += BATCH_LANES) {
+            int end = Math.min(to, base + BATCH_LANES);
+            int active = 0;
+
+            for (int i = base; i < end; i++) {
+                laneKey[active] = i;
+                laneBase[active] = h(keys[i], m);
+                active++;
+            }
 
-    // Verification helper - Returns the array index where the specified key is stored, 
+            for (int j = 0; active > 0 && j < m; j++) {
+                int next = 0;
+
+                for (int a = 0; a < active; a++) {
+                    int i = laneKey[a];
+                    int idx = (int) ((laneBase[a] + (long) j * j) % m);
+                    Integer v = table[idx];
+
+                    if (v == null && !tomb[idx]) {
+                        out[i] = false;
+                    } else if (v != null && v == keys[i]) {
+                        out[i] = true;
+                    } else {
+                        laneKey[next] = i;
+                        laneBase[next] = laneBase[a];
+                        next++;
+                    }
+                }
+
+                active = next;
+            }
+
+            for (int a = 0; a < active; a++) {
+                out[laneKey[a]] = false;
+            }
+        }
+    }
+
+    // Slots examined by a lookup of key in the current table, hit or miss
+    public int probes(int key) {
+        int base = h(key, m);
+        int j = 0;
+
+        while (j < m) {
+            int idx = (int) ((base + (long) j * j) % m);
+            Integer v = table[idx];
+
+            if ((v == null && !tomb[idx]) || (v != null && v == key)) {
+                return j + 1;
+            }
+
+            j++;
+        }
+
+        return m;
+    }
+
+
+    // Verification helper - Returns the array index where the specified key is stored,
     // or -1 if the key is not in the table.
 
     private int findQuadraticIndex(int key) {
-        int base = h(key);
+        return findIndex(table, tomb, m, key);
+    }
+
+    private int findIndex(Integer[] table, boolean[] tomb, int m, int key) {
+        return findIndex(table, tomb, m, key, null);
+    }
+
+    // probes, if not null, records the slots examined
+    private int findIndex(Integer[] table, boolean[] tomb, int m, int key, Metrics probes) {
+        int base = h(key, m);
         int j = 0;
 
         while (j < m) {
-            int idx = (base + j * j) % m;
+            int idx = (int) ((base + (long) j * j) % m);
             Integer v = table[idx];
-            
+
             if (v == null && !tomb[idx]) {
+                if (Metrics.ENABLED && probes != null) {
+                    probes.record(j + 1);
+                }
                 return -1;  // no empty slot found
             }
-            
+
             if (v != null && v == key) {
+                if (Metrics.ENABLED && probes != null) {
+                    probes.record(j + 1);
+                }
                 return idx;   // found
             }
-            
+
             j++;
         }
+
+        if (Metrics.ENABLED && probes != null) {
+            probes.record(m);
+        }
         return -1;
     }
 
     public void getQuadraticIndex(int key) {
         int idx = findQuadraticIndex(key);
-        
+
         if (idx == -1) {
             System.out.println("Key " + key + " not found in quadratic hash table.");
         } else {
             System.out.println("Key " + key + " is stored at index " + idx);
         }
     }
+
+    static int nextPrime(int x) {
+        while (!isPrime(x)) {
+            x++;
+        }
+
+        return x;
+    }
+
+    static boolean isPrime(int x) {
+        if (x < 2) {
+            return false;
+        }
+
+        for (int d = 2; (long) d * d <= x; d++) {
+            if (x % d == 0) {
+                return false;
+            }
+        }
+
+        return true;
+    }
 }
@@ -0,0 +1,320 @@
+import java.util.Map;
+import java.util.function.IntConsumer;
+
+// Primitive twin of HashTableQuadratic: keys live directly in an int[] (no boxing),
+// empty and deleted slots are encoded with sentinel values, and the capacity is a
+// power of two so the probe index is a mask instead of a % m division.
+class HashTableQuadraticInt implements IntSet {
+    static final int EMPTY = 0;
+    static final int TOMB = Integer.MIN_VALUE;
+
+    // Rehash in place once tombstones fill this fraction of the slots - misses
+    // only stop at EMPTY, so tombstones lengthen every unsuccessful probe.
+    static final double MAX_TOMB_FRACTION = 0.25;
+
+    private int[] table;
+    private final int mask;
+    private int size;
+    private int tombs;
+    private int compactions;
+    private final Metrics lookupProbes = Metrics.create();
+
+    // containsAll resolves lookups in groups of BATCH_LANES, one probe per lane
+    // per pass; lane state is kept here so a batch allocates nothing
+    static final int BATCH_LANES = 16;
+    private final int[] laneKey = new int[BATCH_LANES];
+    private final int[] laneSlot = new int[BATCH_LANES];
+
+    // Keys that collide with a sentinel are tracked out of band
+    private boolean hasEmptyKey;
+    private boolean hasTombKey;
+
+    public HashTableQuadraticInt(int m) {
+        if (m <= 0) {
+            throw new IllegalArgumentException("Table size must be positive");
+        }
+
+        int cap = Integer.highestOneBit(Math.max(2, m - 1)) << 1;
+
+        if (cap <= 0) {
+            throw new IllegalArgumentException("Table size too large: " + m);
+        }
+
+        this.table = new int[cap];
+        this.mask = cap - 1;
+    }
+
+    public int capacity() {
+        return table.length;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int tombstones() {
+        return tombs;
+    }
+
+    public int compactions() {
+        return compactions;
+    }
+
+    // Probes per contains() call (sentinel keys take none and aren't counted)
+    public Map<String, Metrics> metrics() {
+        return lookupProbes == null ? Map.of() : Map.of("probes/lookup", lookupProbes);
+    }
+
+    public long memoryBytes() {
+        return 16L + 4L * table.length;
+    }
+
+    // Every key, in slot order (unordered) - a full pass over the table
+    public void forEach(IntConsumer action) {
+        if (hasEmptyKey) {
+            action.accept(EMPTY);
+        }
+
+        if (hasTombKey) {
+            action.accept(TOMB);
+        }
+
+        for (int v : table) {
+            if (v != EMPTY && v != TOMB) {
+                action.accept(v);
+            }
+        }
+    }
+
+    // Spread the high bits down before masking (as java.util.HashMap does) - non-negative.
+    private int h(int key) {
+        return (key ^ (key >>> 16)) & mask;
+    }
+
+    // Insert key using quadratic (triangular) probing, ignores duplicates.
+    // Steps of 1, 2, 3, ... visit every slot of a power-of-two table exactly once.
+    public void insert(int key) {
+        if (key == EMPTY) {
+            size += hasEmptyKey ? 0 : 1;
+            hasEmptyKey = true;
+            return;
+        }
+
+        if (key == TOMB) {
+            size += hasTombKey ? 0 : 1;
+            hasTombKey = true;
+            return;
+        }
+
+        int idx = h(key);
+        int firstTomb = -1;
+
+        for (int j = 1; j <= table.length; j++) {
+            int v = table[idx];
+
+            if (v == EMPTY) {
+                // Empty slot - place at first tombstone if seen, else here.
+                if (firstTomb != -1) {
+                    idx = firstTomb;
+                    tombs--;
+                }
+
+                table[idx] = key;
+                size++;
+                return;
+            }
+
+            if (v == key) {
+                // Duplicate - ignore
+                return;
+            }
+
+            if (v == TOMB && firstTomb == -1) {
+                firstTomb = idx;
+            }
+
+            idx = (idx + j) & mask;
+        }
+
+        if (firstTomb != -1) {
+            table[firstTomb] = key;
+            tombs--;
+            size++;
+            return;
+        }
+
+        throw new IllegalStateException("Hash table is full");
+    }
+
+    // Returns true if the key is present.
+    public boolean contains(int key) {
+        if (key == EMPTY) {
+            return hasEmptyKey;
+        }
+
+        if (key == TOMB) {
+            return hasTombKey;
+        }
+
+        return findIndex(key, lookupProbes) != -1;
+    }
+
+    // Interleaved probing: hash a whole group first, then advance every unresolved
+    // lane by one probe per pass. The loads of one pass don't depend on each
+    // other, so the CPU can have several cache misses in flight instead of one.
+    public void containsAll(int[] keys, int from, int to, boolean[] out) {
+        for (int base = from; base < to; base += BATCH_LANES) {
+            int end = Math.min(to, base + BATCH_LANES);
+            int active = 0;
+
+            for (int i = base; i < end; i++) {
+                int k = keys[i];
+
+                if (k == EMPTY || k == TOMB) {
+                    out[i] = k == EMPTY ? hasEmptyKey : hasTombKey;
+                } else {
+                    laneKey[active] = i;
+                    laneSlot[active] = h(k);
+                    active++;
+                }
+            }
+
+            for (int j = 1; active > 0 && j <= table.length; j++) {
+                int next = 0;
+
+                for (int a = 0; a < active; a++) {
+                    int i = laneKey[a];
+                    int v = table[laneSlot[a]];
+
+                    if (v == keys[i] || v == EMPTY) {
+                        out[i] = v != EMPTY;
+                    } else {
+                        laneKey[next] = i;
+                        laneSlot[next] = (laneSlot[a] + j) & mask;
+                        next++;
+                    }
+                }
+
+                active = next;
+            }
+
+            // Probed the whole table without a hit
+            for (int a = 0; a < active; a++) {
+                out[laneKey[a]] = false;
+            }
+        }
+    }
+
+    public boolean remove(int key) {
+        if (key == EMPTY || key == TOMB) {
+            boolean had = key == EMPTY ? hasEmptyKey : hasTombKey;
+
+            if (key == EMPTY) {
+                hasEmptyKey = false;
+            } else {
+                hasTombKey = false;
+            }
+
+            size -= had ? 1 : 0;
+            return had;
+        }
+
+        int idx = findIndex(key);
+
+        if (idx == -1) {
+            return false;
+        }
+
+        table[idx] = TOMB;
+        tombs++;
+        size--;
+
+        if (tombs > MAX_TOMB_FRACTION * table.length) {
+            compact();
+        }
+
+        return true;
+    }
+
+    // Rehash in place: reinsert every live key into a clean array of the same size
+    private void compact() {
+        int[] old = table;
+        table = new int[old.length];
+        tombs = 0;
+
+        for (int v : old) {
+            if (v != EMPTY && v != TOMB) {
+                table[slotFor(v)] = v;
+            }
+        }
+
+        compactions++;
+    }
+
+    // First EMPTY slot on key's probe sequence (only used while compacting)
+    private int slotFor(int key) {
+        int idx = h(key);
+
+        for (int j = 1; table[idx] != EMPTY; j++) {
+            idx = (idx + j) & mask;
+        }
+
+        return idx;
+    }
+
+    // Slots examined by a lookup of key, hit or miss
+    public int probes(int key) {
+        int idx = h(key);
+
+        for (int j = 1; j <= table.length; j++) {
+            int v = table[idx];
+
+            if (v == key || v == EMPTY) {
+                return j;
+            }
+
+            idx = (idx + j) & mask;
+        }
+
+        return table.length;
+    }
+
+    // Returns the array index where the key is stored, or -1 if the key is not in
+    // the table (sentinel-valued keys have no slot and also return -1).
+    private int findIndex(int key) {
+        return findIndex(key, null);
+    }
+
+    // probes, if not null, records the slots examined
+    private int findIndex(int key, Metrics probes) {
+        int idx = h(key);
+
+        for (int j = 1; j <= table.length; j++) {
+            int v = table[idx];
+
+            if (v == key || v == EMPTY) {
+                if (Metrics.ENABLED && probes != null) {
+                    probes.record(j);
+                }
+                return v == key ? idx : -1;   // a probe chain ends at the first never-used slot
+            }
+
+            idx = (idx + j) & mask;
+        }
+
+        if (Metrics.ENABLED && probes != null) {
+            probes.record(table.length);
+        }
+        return -1;
+    }
+
+    public void getIndex(int key) {
+        int idx = findIndex(key);
+
+        if (idx == -1) {
+            System.out.println("Key " + key + " not found in primitive hash table.");
+        } else {
+            System.out.println("Key " + key + " is stored at index " + idx);
+        }
+    }
+}
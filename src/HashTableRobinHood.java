@@ -0,0 +1,196 @@
+import java.util.Map;
+
+// Robin Hood hashing on a primitive int[]: linear probing where an insert takes
+// the slot of any resident that sits closer to its home slot than the new key
+// has travelled ("take from the rich"). Probe distances stay short and even,
+// which buys two things plain probing doesn't have:
+//   - a miss stops as soon as it meets a resident closer to home than the
+//     distance probed so far - the key would have displaced it - instead of
+//     running on to the next empty slot;
+//   - remove() shifts the following cluster back one slot (backward-shift
+//     deletion), so there are no tombstones and the table never degrades.
+// The distance of a resident is recomputed from its hash, not stored. The
+// capacity is a power of two and the home slot is Fibonacci hashing (top bits
+// of key * 2^32/phi), so sequential keys spread out.
+class HashTableRobinHood implements IntSet {
+    static final int EMPTY = 0;
+
+    private final int[] table;
+    private final int mask;
+    private final int shift;
+    private int size;
+    private final Metrics lookupProbes = Metrics.create();
+
+    // The key equal to EMPTY is tracked out of band
+    private boolean hasEmptyKey;
+
+    public HashTableRobinHood(int m) {
+        if (m <= 0) {
+            throw new IllegalArgumentException("Table size must be positive");
+        }
+
+        int cap = Integer.highestOneBit(Math.max(2, m - 1)) << 1;
+
+        if (cap <= 0) {
+            throw new IllegalArgumentException("Table size too large: " + m);
+        }
+
+        this.table = new int[cap];
+        this.mask = cap - 1;
+        this.shift = 32 - Integer.numberOfTrailingZeros(cap);
+    }
+
+    public int capacity() {
+        return table.length;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    // Probes per contains() call (the EMPTY key takes none and isn't counted)
+    public Map<String, Metrics> metrics() {
+        return lookupProbes == null ? Map.of() : Map.of("probes/lookup", lookupProbes);
+    }
+
+    public long memoryBytes() {
+        return 16L + 4L * table.length;
+    }
+
+    private int home(int key) {
+        return (key * HashStrategy.GOLDEN) >>> shift;
+    }
+
+    // How far the resident of slot idx is from its home slot
+    private int distance(int v, int idx) {
+        return (idx - home(v)) & mask;
+    }
+
+    // Ignores duplicates. Walks the probe sequence; at the first resident that is
+    // closer to home than the key being placed, the two swap and the displaced
+    // resident carries on looking for a slot.
+    public void insert(int key) {
+        if (key == EMPTY) {
+            size += hasEmptyKey ? 0 : 1;
+            hasEmptyKey = true;
+            return;
+        }
+
+        int idx = home(key);
+        int dist = 0;
+
+        // Until the first swap the key may still be in the table further on
+        for (; dist < table.length; idx = (idx + 1) & mask, dist++) {
+            int v = table[idx];
+
+            if (v == key) {
+                return;
+            }
+
+            if (v == EMPTY || distance(v, idx) < dist) {
+                break;
+            }
+        }
+
+        if (dist == table.length || size - (hasEmptyKey ? 1 : 0) == table.length) {
+            throw new IllegalStateException("Hash table is full");
+        }
+
+        for (; ; idx = (idx + 1) & mask, dist++) {
+            int v = table[idx];
+
+            if (v == EMPTY) {
+                table[idx] = key;
+                size++;
+                return;
+            }
+
+            int d = distance(v, idx);
+
+            if (d < dist) {
+                table[idx] = key;
+                key = v;
+                dist = d;
+            }
+        }
+    }
+
+    public boolean contains(int key) {
+        if (key == EMPTY) {
+            return hasEmptyKey;
+        }
+
+        return findIndex(key, lookupProbes) != -1;
+    }
+
+    public boolean remove(int key) {
+        if (key == EMPTY) {
+            boolean had = hasEmptyKey;
+            hasEmptyKey = false;
+            size -= had ? 1 : 0;
+            return had;
+        }
+
+        int idx = findIndex(key, null);
+
+        if (idx == -1) {
+            return false;
+        }
+
+        // Backward shift: pull each following resident one slot towards home
+        // until a slot is empty or already holds its key at home
+        for (int next = (idx + 1) & mask; ; idx = next, next = (next + 1) & mask) {
+            int v = table[next];
+
+            if (v == EMPTY || distance(v, next) == 0) {
+                table[idx] = EMPTY;
+                break;
+            }
+
+            table[idx] = v;
+        }
+
+        size--;
+        return true;
+    }
+
+    // Slots examined by a lookup of key, hit or miss
+    public int probes(int key) {
+        int idx = home(key);
+
+        for (int dist = 0; dist < table.length; dist++) {
+            int v = table[idx];
+
+            if (v == key || v == EMPTY || distance(v, idx) < dist) {
+                return dist + 1;
+            }
+
+            idx = (idx + 1) & mask;
+        }
+
+        return table.length;
+    }
+
+    // probes, if not null, records the slots examined
+    private int findIndex(int key, Metrics probes) {
+        int idx = home(key);
+
+        for (int dist = 0; dist < table.length; dist++) {
+            int v = table[idx];
+
+            if (v == key || v == EMPTY || distance(v, idx) < dist) {
+                if (Metrics.ENABLED && probes != null) {
+                    probes.record(dist + 1);
+                }
+                return v == key ? idx : -1;   // the key would have displaced this resident
+            }
+
+            idx = (idx + 1) & mask;
+        }
+
+        if (Metrics.ENABLED && probes != null) {
+            probes.record(table.length);
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,47 @@
+import java.util.Map;
+
+// Common contract for every int set engine the benchmark can drive.
+interface IntSet extends AutoCloseable {
+    // Adds key; duplicates are ignored.
+    void insert(int key);
+
+    boolean contains(int key);
+
+    // out[i] = contains(keys[i]) for every i in [from, to). Engines that can
+    // overlap the memory accesses of independent lookups override this.
+    default void containsAll(int[] keys, int from, int to, boolean[] out) {
+        for (int i = from; i < to; i++) {
+            out[i] = contains(keys[i]);
+        }
+    }
+
+    default void containsAll(int[] keys, boolean[] out) {
+        containsAll(keys, 0, keys.length, out);
+    }
+
+    // Adds every key; engines that can presize or build in bulk override this.
+    default void insertAll(int[] keys) {
+        for (int k : keys) {
+            insert(k);
+        }
+    }
+
+    // Removes key, returns true if it was present.
+    boolean remove(int key);
+
+    // Number of distinct keys stored.
+    int size();
+
+    // Estimated retained heap size in bytes (compressed oops, 12-byte object
+    // headers, 16-byte array headers, 8-byte alignment).
+    long memoryBytes();
+
+    // Releases memory the GC doesn't manage (off-heap engines); a no-op otherwise.
+    default void close() {
+    }
+
+    // Structural counters by name (see Metrics); empty unless -Dmetrics=true.
+    default Map<String, Metrics> metrics() {
+        return Map.of();
+    }
+}
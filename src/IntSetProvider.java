@@ -0,0 +1,14 @@
+// Plug-in point for IntSet engines. Built-in engines are registered in IntSets;
+// external ones are found with java.util.ServiceLoader - list the implementing
+// class (public, with a public no-arg constructor) in
+// META-INF/services/IntSetProvider on the classpath.
+interface IntSetProvider {
+    // Short name used on the command line, e.g. "quadint"
+    String name();
+
+    // Row label for result tables
+    String label();
+
+    // Fresh, empty set sized for one benchmark scale
+    IntSet create(Benchmark.ScaleCfg cfg);
+}
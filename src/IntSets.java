@@ -0,0 +1,232 @@
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.function.Function;
+
+// Registry of IntSet engines by name. Built-ins are registered below; anything
+// found through ServiceLoader<IntSetProvider> is added after them and may
+// replace a built-in of the same name. The off-heap engine is one of those: it
+// builds from its own source root (offheap/) because it needs preview APIs.
+class IntSets {
+    private static final Map<String, IntSetProvider> REGISTRY = new LinkedHashMap<>();
+
+    static {
+        register("avl",       "AVL Tree",                        cfg -> new AVLTree());
+        register("avlflat",   "AVL Tree (flat int[])",           cfg -> new AVLTreeFlat());
+        register("splay",     "Splay Tree",                      cfg -> new SplayTree());
+        register("chaining",  "Hash Table (Chaining)",           cfg -> new HashTableChaining(cfg.mChaining));
+        register("flat",      "Hash Table (Chaining flat)",      cfg -> new HashTableChainingFlat(cfg.mChaining));
+        register("quadratic", "Hash Table (Quadratic)",          cfg -> new HashTableQuadratic(cfg.mQuadratic));
+        register("quadint",   "Hash Table (Quadratic int[])",    cfg -> new HashTableQuadraticInt(cfg.mQuadratic));
+        register("robinhood", "Hash Table (Robin Hood int[])",   cfg -> new HashTableRobinHood(cfg.mQuadratic));
+        register("cuckoo",    "Hash Table (Cuckoo 3x1 int[])",   cfg -> new HashTableCuckoo(cfg.mQuadratic, 3, 1));
+        register("cuckoo4",   "Hash Table (Cuckoo 2x4 int[])",   cfg -> new HashTableCuckoo(cfg.mQuadratic, 2, 4));
+        register("striped",   "Striped int[] (lock-free reads)", cfg -> new ConcurrentHashTableInt(cfg.N, 64));
+        register("mapped",    "Mapped file index (int[])",       IntSets::mappedTemp);
+        register("skiplist",  "Concurrent skip list (int)",      cfg -> new ConcurrentSkipListInt());
+        register("chm",       "ConcurrentHashMap keySet",        cfg -> boxed(ConcurrentHashMap.newKeySet(cfg.N)));
+        register("csls",      "ConcurrentSkipListSet",           cfg -> boxed(new ConcurrentSkipListSet<>()));
+
+        for (IntSetProvider p : ServiceLoader.load(IntSetProvider.class)) {
+            REGISTRY.put(p.name(), p);
+        }
+    }
+
+    private static IntSet mappedTemp(Benchmark.ScaleCfg cfg) {
+        try {
+            return MappedIntSet.temporary(cfg.N);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // Engines the single-threaded benchmark runs when -Dstructures is not given
+    static final String DEFAULT_STRUCTURES = "avl,avlflat,splay,chaining,flat,quadratic,quadint,robinhood,cuckoo,cuckoo4";
+
+    static void register(String name, String label, Function<Benchmark.ScaleCfg, IntSet> factory) {
+        REGISTRY.put(name, new IntSetProvider() {
+            public String name() {
+                return name;
+            }
+
+            public String label() {
+                return label;
+            }
+
+            public IntSet create(Benchmark.ScaleCfg cfg) {
+                return factory.apply(cfg);
+            }
+        });
+    }
+
+    // "sync:<name>" wraps any engine in synchronizedSet
+    static IntSetProvider get(String name) {
+        name = name.trim();
+
+        if (name.startsWith("sync:")) {
+            IntSetProvider inner = get(name.substring("sync:".length()));
+            String syncName = name;
+
+            return new IntSetProvider() {
+                public String name() {
+                    return syncName;
+                }
+
+                public String label() {
+                    return "Synchronized " + inner.label();
+                }
+
+                public IntSet create(Benchmark.ScaleCfg cfg) {
+                    return synchronizedSet(inner.create(cfg));
+                }
+            };
+        }
+
+        IntSetProvider p = REGISTRY.get(name);
+
+        if (p == null) {
+            throw new IllegalArgumentException("Unknown structure: " + name + " (known: " + REGISTRY.keySet() + ")");
+        }
+
+        return p;
+    }
+
+    // Comma-separated names, in the order given
+    static List<IntSetProvider> parse(String names) {
+        List<IntSetProvider> out = new ArrayList<>();
+
+        for (String n : names.split(",")) {
+            if (!n.trim().isEmpty()) {
+                out.add(get(n));
+            }
+        }
+
+        return out;
+    }
+
+    static Set<String> names() {
+        return Collections.unmodifiableSet(REGISTRY.keySet());
+    }
+
+    // Keys ascending without duplicates. Input that is already strictly ascending
+    // is returned as is; anything else is copied and sorted.
+    static int[] sortedUnique(int[] keys) {
+        int i = 1;
+
+        while (i < keys.length && keys[i - 1] < keys[i]) {
+            i++;
+        }
+
+        if (i >= keys.length) {
+            return keys;
+        }
+
+        int[] a = keys.clone();
+        Arrays.sort(a);
+        int n = a.length == 0 ? 0 : 1;
+
+        for (int j = 1; j < a.length; j++) {
+            if (a[j] != a[n - 1]) {
+                a[n++] = a[j];
+            }
+        }
+
+        return Arrays.copyOf(a, n);
+    }
+
+    // Union of two ascending, duplicate-free arrays
+    static int[] mergeSorted(int[] a, int[] b) {
+        int[] out = new int[a.length + b.length];
+        int i = 0, j = 0, n = 0;
+
+        while (i < a.length && j < b.length) {
+            if (a[i] < b[j]) {
+                out[n++] = a[i++];
+            } else if (a[i] > b[j]) {
+                out[n++] = b[j++];
+            } else {
+                out[n++] = a[i++];
+                j++;
+            }
+        }
+
+        while (i < a.length) {
+            out[n++] = a[i++];
+        }
+
+        while (j < b.length) {
+            out[n++] = b[j++];
+        }
+
+        return n == out.length ? out : Arrays.copyOf(out, n);
+    }
+
+    // Wraps a single-threaded set behind one global lock
+    static IntSet synchronizedSet(IntSet s) {
+        return new IntSet() {
+            public synchronized void insert(int key) {
+                s.insert(key);
+            }
+
+            public synchronized void insertAll(int[] keys) {
+                s.insertAll(keys);
+            }
+
+            public synchronized boolean contains(int key) {
+                return s.contains(key);
+            }
+
+            public synchronized void containsAll(int[] keys, int from, int to, boolean[] out) {
+                s.containsAll(keys, from, to, out);
+            }
+
+            public synchronized boolean remove(int key) {
+                return s.remove(key);
+            }
+
+            public synchronized int size() {
+                return s.size();
+            }
+
+            public synchronized long memoryBytes() {
+                return s.memoryBytes();
+            }
+
+            public synchronized void close() {
+                s.close();
+            }
+
+            public synchronized Map<String, Metrics> metrics() {
+                return s.metrics();
+            }
+        };
+    }
+
+    // Adapts a boxed java.util set (e.g. ConcurrentHashMap.newKeySet()). The
+    // memory estimate assumes a HashMap-style node (32 B) plus Integer (16 B) per key.
+    static IntSet boxed(Set<Integer> s) {
+        return new IntSet() {
+            public void insert(int key) {
+                s.add(key);
+            }
+
+            public boolean contains(int key) {
+                return s.contains(key);
+            }
+
+            public boolean remove(int key) {
+                return s.remove(key);
+            }
+
+            public int size() {
+                return s.size();
+            }
+
+            public long memoryBytes() {
+                return 48L * s.size();
+            }
+        };
+    }
+}
@@ -0,0 +1,340 @@
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.*;
+import java.util.Arrays;
+
+// Key file loader and binary key format.
+//
+// Text files (one decimal key per line) are memory-mapped and parsed straight
+// from the mapped bytes into an int[] - no String or Integer per key.
+//
+// Binary files start with a 24-byte little-endian header:
+//   int   magic    "DSBK"
+//   short version  1
+//   short flags    FLAG_SORTED | FLAG_UNIQUE | FLAG_DELTA_VARINT
+//   int   count, min, max
+//   int   reserved
+// followed by `count` little-endian ints, or - for sorted keys written with
+// compression - the first key zigzag-varint encoded and then each gap to the
+// previous key as an unsigned LEB128 varint.
+//
+// read() tells the formats apart by the magic number. Convert text files with
+//   java -cp bin [-Dcompress=true] KeyFile itr1_insert_key.txt ...
+class KeyFile {
+    // Largest region mapped at once; parser state carries across regions
+    static final long MAP_CHUNK = 1L << 30;
+
+    static final int MAGIC = 0x4B425344;   // "DSBK" read little-endian
+    static final short VERSION = 1;
+    static final int HEADER_BYTES = 24;
+
+    static final int FLAG_SORTED = 1;
+    static final int FLAG_UNIQUE = 2;
+    static final int FLAG_DELTA_VARINT = 4;
+
+    static class Header {
+        int flags, count, min, max;
+
+        boolean sorted() {
+            return (flags & FLAG_SORTED) != 0;
+        }
+    }
+
+    // Reads up to `limit` keys (all if limit <= 0) from a binary or text key file.
+    static int[] read(Path path, int limit) throws IOException {
+        try (FileChannel ch = FileChannel.open(path, StandardOpenOption.READ)) {
+            Header h = readHeader(ch);
+            return h != null ? readBinary(ch, h, path, limit) : readText(ch, path, limit);
+        }
+    }
+
+    // Header of a binary key file, or null if the file is not one
+    static Header readHeader(Path path) throws IOException {
+        try (FileChannel ch = FileChannel.open(path, StandardOpenOption.READ)) {
+            return readHeader(ch);
+        }
+    }
+
+    private static Header readHeader(FileChannel ch) throws IOException {
+        if (ch.size() < HEADER_BYTES) {
+            return null;
+        }
+
+        ByteBuffer b = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+
+        while (b.hasRemaining() && ch.read(b, b.position()) > 0) {
+            // keep reading
+        }
+
+        b.flip();
+
+        if (b.getInt() != MAGIC) {
+            return null;
+        }
+
+        short version = b.getShort();
+
+        if (version != VERSION) {
+            throw new IOException("Unsupported key file version " + version);
+        }
+
+        Header h = new Header();
+        h.flags = b.getShort();
+        h.count = b.getInt();
+        h.min = b.getInt();
+        h.max = b.getInt();
+        return h;
+    }
+
+    private static int[] readBinary(FileChannel ch, Header h, Path path, int limit) throws IOException {
+        int n = limit > 0 ? Math.min(limit, h.count) : h.count;
+        int[] out = new int[n];
+        int filled = 0;
+
+        if ((h.flags & FLAG_DELTA_VARINT) == 0) {
+            // Raw ints - bulk copy out of each mapped region
+            for (long pos = HEADER_BYTES; filled < n; ) {
+                long bytes = Math.min(MAP_CHUNK, 4L * (n - filled));
+                MappedByteBuffer buf = ch.map(FileChannel.MapMode.READ_ONLY, pos, bytes);
+                int k = (int) (bytes / 4);
+                buf.order(ByteOrder.LITTLE_ENDIAN).asIntBuffer().get(out, filled, k);
+                filled += k;
+                pos += bytes;
+            }
+
+            return out;
+        }
+
+        // Delta + varint - decoder state carries across regions
+        long len = ch.size();
+        long acc = 0, prev = 0;
+        int shift = 0;
+
+        for (long pos = HEADER_BYTES; pos < len && filled < n; pos += MAP_CHUNK) {
+            MappedByteBuffer buf = ch.map(FileChannel.MapMode.READ_ONLY, pos, Math.min(MAP_CHUNK, len - pos));
+
+            while (buf.hasRemaining() && filled < n) {
+                byte b = buf.get();
+                acc |= (long) (b & 0x7F) << shift;
+                shift += 7;
+
+                // An int needs at most 5 bytes; the fifth must end the varint
+                if (b < 0) {
+                    if (shift >= 35) {
+                        throw new IOException("Corrupt varint in " + path);
+                    }
+
+                    continue;
+                }
+
+                if (acc >>> 32 != 0) {
+                    throw new IOException("Corrupt varint in " + path);
+                }
+
+                // First value is zigzag-encoded, the rest are gaps
+                prev = filled == 0 ? (acc >>> 1) ^ -(acc & 1) : prev + acc;
+
+                if (prev != (int) prev) {
+                    throw new IOException("Varint gap overflows an int in " + path);
+                }
+
+                out[filled++] = (int) prev;
+                acc = 0;
+                shift = 0;
+            }
+        }
+
+        if (filled < n) {
+            throw new IOException("Truncated key file " + path);
+        }
+
+        return out;
+    }
+
+    // Writes keys in the binary format. Compression is applied only when the keys
+    // are sorted; returns the header that was written.
+    static Header write(Path path, int[] keys, boolean compress) throws IOException {
+        Header h = new Header();
+        h.count = keys.length;
+        h.min = Integer.MAX_VALUE;
+        h.max = Integer.MIN_VALUE;
+
+        boolean sorted = true;
+
+        for (int i = 0; i < keys.length; i++) {
+            h.min = Math.min(h.min, keys[i]);
+            h.max = Math.max(h.max, keys[i]);
+
+            if (i > 0 && keys[i] < keys[i - 1]) {
+                sorted = false;
+            }
+        }
+
+        int[] copy = sorted ? keys : keys.clone();
+
+        if (!sorted) {
+            Arrays.sort(copy);
+        }
+
+        boolean unique = true;
+
+        for (int i = 1; i < copy.length && unique; i++) {
+            unique = copy[i] != copy[i - 1];
+        }
+
+        h.flags = (sorted ? FLAG_SORTED : 0) | (unique ? FLAG_UNIQUE : 0) | (sorted && compress ? FLAG_DELTA_VARINT : 0);
+
+        try (FileChannel ch = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                                               StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer b = ByteBuffer.allocate(1 << 16).order(ByteOrder.LITTLE_ENDIAN);
+            b.putInt(MAGIC).putShort(VERSION).putShort((short) h.flags)
+             .putInt(h.count).putInt(h.min).putInt(h.max).putInt(0);
+
+            long prev = 0;
+
+            for (int i = 0; i < keys.length; i++) {
+                if (b.remaining() < 5) {
+                    flush(ch, b);
+                }
+
+                if ((h.flags & FLAG_DELTA_VARINT) == 0) {
+                    b.putInt(keys[i]);
+                    continue;
+                }
+
+                long v = i == 0 ? ((long) keys[0] << 1) ^ (keys[0] >> 31) : keys[i] - prev;
+                v &= 0xFFFF_FFFFL;
+                prev = keys[i];
+
+                while (v >= 0x80) {
+                    b.put((byte) (v | 0x80));
+                    v >>>= 7;
+                }
+
+                b.put((byte) v);
+            }
+
+            flush(ch, b);
+            ch.force(true);
+        }
+
+        return h;
+    }
+
+    private static void flush(FileChannel ch, ByteBuffer b) throws IOException {
+        b.flip();
+
+        while (b.hasRemaining()) {
+            ch.write(b);
+        }
+
+        b.clear();
+    }
+
+    // Converter: writes <name>.bin next to each text key file given
+    public static void main(String[] args) throws IOException {
+        boolean compress = Boolean.getBoolean("compress");
+
+        if (args.length == 0) {
+            System.out.println("Usage: java -cp bin [-Dcompress=true] KeyFile <keys.txt>...");
+            return;
+        }
+
+        for (String a : args) {
+            Path in = Paths.get(a);
+            String name = in.getFileName().toString();
+            Path out = in.resolveSibling(name.replaceFirst("\\.txt$", "") + ".bin");
+
+            int[] keys = read(in, 0);
+            Header h = write(out, keys, compress);
+
+            System.out.printf("%s -> %s: %d keys, min %d, max %d, %s%s, %d -> %d bytes%n",
+                in, out, h.count, h.min, h.max,
+                h.sorted() ? "sorted" : "unsorted",
+                (h.flags & FLAG_DELTA_VARINT) != 0 ? ", delta+varint" : "",
+                Files.size(in), Files.size(out));
+        }
+    }
+
+    // Whitespace-separated decimal keys, up to `limit` (all if limit <= 0)
+    private static int[] readText(FileChannel ch, Path path, int limit) throws IOException {
+        long len = ch.size();
+        int want = limit > 0 ? limit : Integer.MAX_VALUE - 8;
+
+        // Assume ~7 bytes per line for the first guess, grow by doubling
+        IntList out = new IntList((int) Math.min(want, Math.max(16, len / 7)));
+        long value = 0;
+        boolean neg = false, inNumber = false;
+
+        for (long pos = 0; pos < len && out.size < want; pos += MAP_CHUNK) {
+            MappedByteBuffer buf = ch.map(FileChannel.MapMode.READ_ONLY, pos, Math.min(MAP_CHUNK, len - pos));
+
+            while (buf.hasRemaining() && out.size < want) {
+                byte b = buf.get();
+
+                if (b >= '0' && b <= '9') {
+                    value = value * 10 + (b - '0');
+                    inNumber = true;
+
+                    if (value > 1L + Integer.MAX_VALUE) {
+                        throw new IOException("Key out of int range in " + path);
+                    }
+                } else if (b == '-' && !inNumber && !neg) {
+                    neg = true;
+                } else if (b == ' ' || b == '\n' || b == '\r' || b == '\t') {
+                    if (inNumber) {
+                        out.add(toInt(neg ? -value : value, path));
+                    } else if (neg) {
+                        throw new IOException("Dangling '-' in " + path);
+                    }
+
+                    value = 0;
+                    neg = false;
+                    inNumber = false;
+                } else {
+                    throw new IOException("Unexpected byte " + b + " in " + path);
+                }
+            }
+        }
+
+        // Last key may have no trailing newline
+        if (inNumber && out.size < want) {
+            out.add(toInt(neg ? -value : value, path));
+        }
+
+        return out.toArray();
+    }
+
+    private static int toInt(long v, Path path) throws IOException {
+        if (v < Integer.MIN_VALUE || v > Integer.MAX_VALUE) {
+            throw new IOException("Key out of int range in " + path);
+        }
+
+        return (int) v;
+    }
+
+    // Growable int buffer
+    static class IntList {
+        int[] a;
+        int size;
+
+        IntList(int capacity) {
+            a = new int[Math.max(1, capacity)];
+        }
+
+        void add(int v) {
+            if (size == a.length) {
+                a = Arrays.copyOf(a, (int) Math.min(Integer.MAX_VALUE - 8, 2L * size));
+            }
+
+            a[size++] = v;
+        }
+
+        int[] toArray() {
+            return size == a.length ? a : Arrays.copyOf(a, size);
+        }
+    }
+}
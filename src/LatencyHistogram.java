@@ -0,0 +1,103 @@
+import java.util.Arrays;
+
+// Log-bucketed latency histogram in the style of HdrHistogram. Values below 32
+// are counted exactly; above that every power of two is split into 32 linear
+// sub-buckets, so any recorded value is off by at most ~3% and the whole range
+// of a long fits in under 2,000 counters. Recording is an index computation and
+// one increment - no allocation, no sorting.
+class LatencyHistogram {
+    static final int SUB_BITS = 5;
+    static final int SUB = 1 << SUB_BITS;
+
+    // Percentiles shown for every histogram in the benchmark tables
+    static final double[] PERCENTILES = {50, 90, 99, 99.9, 100};
+    static final String[] PERCENTILE_NAMES = {"p50", "p90", "p99", "p99.9", "max"};
+
+    private final long[] counts = new long[SUB + (64 - SUB_BITS) * SUB];
+    private long total;
+    private long max;
+
+    static int index(long v) {
+        if (v < SUB) {
+            return (int) v;
+        }
+
+        int shift = 63 - Long.numberOfLeadingZeros(v) - SUB_BITS;
+        return SUB + shift * SUB + (int) ((v >>> shift) & (SUB - 1));
+    }
+
+    // Midpoint of the values that map to bucket i
+    static long value(int i) {
+        if (i < SUB) {
+            return i;
+        }
+
+        int shift = i / SUB - 1;
+        long lower = (long) (SUB + i % SUB) << shift;
+        return lower + ((1L << shift) - 1) / 2;
+    }
+
+    void record(long v) {
+        v = Math.max(0, v);
+        counts[index(v)]++;
+        total++;
+        max = Math.max(max, v);
+    }
+
+    void add(LatencyHistogram o) {
+        for (int i = 0; i < counts.length; i++) {
+            counts[i] += o.counts[i];
+        }
+
+        total += o.total;
+        max = Math.max(max, o.max);
+    }
+
+    void reset() {
+        Arrays.fill(counts, 0);
+        total = 0;
+        max = 0;
+    }
+
+    long count() {
+        return total;
+    }
+
+    long max() {
+        return max;
+    }
+
+    // Nearest-rank percentile, p in [0, 100]; p = 100 is the exact maximum
+    long percentile(double p) {
+        if (total == 0) {
+            return 0;
+        }
+
+        if (p >= 100) {
+            return max;
+        }
+
+        long rank = Math.max(1, (long) Math.ceil(p / 100.0 * total));
+        long seen = 0;
+
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+
+            if (seen >= rank) {
+                return Math.min(value(i), max);
+            }
+        }
+
+        return max;
+    }
+
+    long[] percentiles() {
+        long[] out = new long[PERCENTILES.length];
+
+        for (int i = 0; i < out.length; i++) {
+            out[i] = percentile(PERCENTILES[i]);
+        }
+
+        return out;
+    }
+}
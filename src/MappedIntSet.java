@@ -0,0 +1,469 @@
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.*;
+import java.util.zip.CRC32C;
+
+// Persistent hash index: an open-addressing int set (HashTableQuadraticInt's
+// layout - power-of-two capacity, triangular probing, EMPTY/TOMB sentinels)
+// whose slots live in a memory-mapped file. open() only reads the header and
+// maps the file, so reopening is O(1) and slots page in on first touch.
+//
+// File layout, little-endian:
+//   int   magic    "DSHX"
+//   short version  1
+//   short flags    FLAG_CLEAN | FLAG_EMPTY_KEY | FLAG_TOMB_KEY
+//   long  capacity, size, used, tombs
+//   long  dataCrc  CRC32C of the slot region as of the last flush
+//   int   headerCrc CRC32C of the bytes above
+// and the slots from HEADER_BYTES (one page) on.
+//
+// Crash safety: the first write after open/flush clears FLAG_CLEAN and forces
+// the header; flush() forces the slots, then writes the counters with
+// FLAG_CLEAN and forces the header again. A file opened without FLAG_CLEAN is
+// recovered by rescanning the slots. Growing rehashes into a temporary file and
+// renames it over the old one, so a crash mid-resize leaves the old index.
+class MappedIntSet implements IntSet {
+    static final int EMPTY = 0;
+    static final int TOMB = Integer.MIN_VALUE;
+    static final double MAX_LOAD = 0.5;
+
+    static final int MAGIC = 0x58485344;   // "DSHX" read little-endian
+    static final short VERSION = 1;
+    static final int HEADER_BYTES = 4096;
+    static final int HEADER_USED = 56;
+
+    static final int FLAG_CLEAN = 1;
+    static final int FLAG_EMPTY_KEY = 2;
+    static final int FLAG_TOMB_KEY = 4;
+
+    // Slots per mapped region - a MappedByteBuffer is limited to 2 GB
+    static final int CHUNK_SHIFT = 28;
+    static final int CHUNK_MASK = (1 << CHUNK_SHIFT) - 1;
+
+    private final Path path;
+    private final boolean temporary;
+
+    private MappedByteBuffer header;
+    private MappedByteBuffer[] regions;
+    private IntBuffer[] chunks;
+    private long capacity;
+    private long mask;
+    private long used;
+    private long tombs;
+    private int size;
+    private boolean hasEmptyKey;
+    private boolean hasTombKey;
+    private boolean dirty;
+    private int resizes;
+
+    private MappedIntSet(Path path, boolean temporary) {
+        this.path = path;
+        this.temporary = temporary;
+    }
+
+    // New, empty index sized for `expected` keys; replaces any existing file
+    static MappedIntSet create(Path path, long expected) throws IOException {
+        MappedIntSet s = new MappedIntSet(path, false);
+        s.init(capacityFor(expected));
+        return s;
+    }
+
+    // Index in a temporary file that is deleted on close
+    static MappedIntSet temporary(long expected) throws IOException {
+        Path p = Files.createTempFile("intset", ".idx");
+        MappedIntSet s = new MappedIntSet(p, true);
+        s.init(capacityFor(expected));
+        return s;
+    }
+
+    // Maps an existing index. O(1) unless the file was not flushed cleanly.
+    static MappedIntSet open(Path path) throws IOException {
+        MappedIntSet s = new MappedIntSet(path, false);
+        s.map();
+
+        ByteBuffer h = s.header.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+
+        if (h.getInt(0) != MAGIC) {
+            throw new IOException("Not an index file: " + path);
+        }
+
+        if (h.getShort(4) != VERSION) {
+            throw new IOException("Unsupported index version " + h.getShort(4) + " in " + path);
+        }
+
+        if (h.getInt(HEADER_USED - 4) != headerCrc(h)) {
+            throw new IOException("Corrupt index header in " + path);
+        }
+
+        int flags = h.getShort(6);
+        s.size = (int) h.getLong(16);
+        s.used = h.getLong(24);
+        s.tombs = h.getLong(32);
+        s.hasEmptyKey = (flags & FLAG_EMPTY_KEY) != 0;
+        s.hasTombKey = (flags & FLAG_TOMB_KEY) != 0;
+
+        if ((flags & FLAG_CLEAN) == 0) {
+            s.recover();
+        }
+
+        return s;
+    }
+
+    private static long capacityFor(long expected) {
+        return Long.highestOneBit(Math.max(2, (long) Math.ceil(expected / MAX_LOAD) - 1)) << 1;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public long capacity() {
+        return capacity;
+    }
+
+    public int resizes() {
+        return resizes;
+    }
+
+    // Mapped file size - page cache, not Java heap
+    public long memoryBytes() {
+        return HEADER_BYTES + 4L * capacity;
+    }
+
+    // Creates the file at `cap` slots and maps it
+    private void init(long cap) throws IOException {
+        try (FileChannel ch = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                                               StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer h = ByteBuffer.allocate(HEADER_USED).order(ByteOrder.LITTLE_ENDIAN);
+            h.putInt(MAGIC).putShort(VERSION).putShort((short) FLAG_CLEAN).putLong(cap);
+            h.putInt(HEADER_USED - 4, headerCrc(h));
+            h.clear();
+
+            while (h.hasRemaining()) {
+                ch.write(h, h.position());
+            }
+
+            // Sparse - the OS hands out zeroed (EMPTY) pages on first touch
+            ch.write(ByteBuffer.allocate(1), HEADER_BYTES + 4L * cap - 1);
+        }
+
+        size = 0;
+        used = 0;
+        tombs = 0;
+        hasEmptyKey = false;
+        hasTombKey = false;
+        map();
+    }
+
+    private void map() throws IOException {
+        try (FileChannel ch = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            header = ch.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_BYTES);
+            capacity = header.duplicate().order(ByteOrder.LITTLE_ENDIAN).getLong(8);
+            mask = capacity - 1;
+
+            if (Long.bitCount(capacity) != 1 || ch.size() < HEADER_BYTES + 4L * capacity) {
+                throw new IOException("Truncated index file " + path);
+            }
+
+            int n = (int) ((capacity + CHUNK_MASK) >>> CHUNK_SHIFT);
+            regions = new MappedByteBuffer[n];
+            chunks = new IntBuffer[n];
+
+            for (int i = 0; i < n; i++) {
+                long first = (long) i << CHUNK_SHIFT;
+                long slots = Math.min(1L << CHUNK_SHIFT, capacity - first);
+                regions[i] = ch.map(FileChannel.MapMode.READ_WRITE, HEADER_BYTES + 4 * first, 4 * slots);
+                chunks[i] = regions[i].order(ByteOrder.LITTLE_ENDIAN).asIntBuffer();
+            }
+        }
+
+        dirty = false;
+    }
+
+    private int slot(long i) {
+        return chunks[(int) (i >>> CHUNK_SHIFT)].get((int) i & CHUNK_MASK);
+    }
+
+    private void setSlot(long i, int v) {
+        chunks[(int) (i >>> CHUNK_SHIFT)].put((int) i & CHUNK_MASK, v);
+    }
+
+    private long h(int key) {
+        long x = key * 0x9E37_79B9_7F4A_7C15L;
+        return (x ^ (x >>> 32)) & mask;
+    }
+
+    // First write since the last flush marks the file dirty on disk
+    private void touch() {
+        if (!dirty) {
+            writeHeader(false, 0);
+            header.force();
+            dirty = true;
+        }
+    }
+
+    // Sentinel-valued keys live only in the header flags, which recovery reads
+    // as is - write them through right away
+    private void sentinelChanged() {
+        writeHeader(false, 0);
+        header.force();
+        dirty = true;
+    }
+
+    public void insert(int key) {
+        if (key == EMPTY || key == TOMB) {
+            if (!(key == EMPTY ? hasEmptyKey : hasTombKey)) {
+                hasEmptyKey |= key == EMPTY;
+                hasTombKey |= key == TOMB;
+                size++;
+                sentinelChanged();
+            }
+
+            return;
+        }
+
+        if (used + 1 > MAX_LOAD * capacity) {
+            if (find(key) != -1) {
+                return;
+            }
+
+            rehash(2 * tombs >= used ? capacity : 2 * capacity);
+        }
+
+        long idx = h(key);
+        long firstTomb = -1;
+
+        for (long j = 1; j <= capacity; j++) {
+            int v = slot(idx);
+
+            if (v == key) {
+                return;
+            }
+
+            if (v == EMPTY) {
+                touch();
+
+                if (firstTomb != -1) {
+                    idx = firstTomb;
+                    tombs--;
+                } else {
+                    used++;
+                }
+
+                setSlot(idx, key);
+                size++;
+                return;
+            }
+
+            if (v == TOMB && firstTomb == -1) {
+                firstTomb = idx;
+            }
+
+            idx = (idx + j) & mask;
+        }
+
+        if (firstTomb != -1) {
+            touch();
+            setSlot(firstTomb, key);
+            tombs--;
+            size++;
+            return;
+        }
+
+        throw new IllegalStateException("Hash table is full");
+    }
+
+    public boolean contains(int key) {
+        if (key == EMPTY) {
+            return hasEmptyKey;
+        }
+
+        if (key == TOMB) {
+            return hasTombKey;
+        }
+
+        return find(key) != -1;
+    }
+
+    public boolean remove(int key) {
+        if (key == EMPTY || key == TOMB) {
+            boolean had = key == EMPTY ? hasEmptyKey : hasTombKey;
+
+            if (had) {
+                if (key == EMPTY) {
+                    hasEmptyKey = false;
+                } else {
+                    hasTombKey = false;
+                }
+
+                size--;
+                sentinelChanged();
+            }
+
+            return had;
+        }
+
+        long idx = find(key);
+
+        if (idx == -1) {
+            return false;
+        }
+
+        touch();
+        setSlot(idx, TOMB);
+        tombs++;
+        size--;
+        return true;
+    }
+
+    private long find(int key) {
+        long idx = h(key);
+
+        for (long j = 1; j <= capacity; j++) {
+            int v = slot(idx);
+
+            if (v == key) {
+                return idx;
+            }
+
+            if (v == EMPTY) {
+                return -1;
+            }
+
+            idx = (idx + j) & mask;
+        }
+
+        return -1;
+    }
+
+    // Makes everything written so far durable and marks the file clean
+    public void flush() {
+        for (MappedByteBuffer r : regions) {
+            r.force();
+        }
+
+        writeHeader(true, dataCrc());
+        header.force();
+        dirty = false;
+    }
+
+    // Recomputes the slot checksum and compares it with the one stored by the
+    // last flush. O(capacity) - open() skips this.
+    public boolean verify() {
+        ByteBuffer h = header.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+        return !dirty && h.getLong(40) == dataCrc();
+    }
+
+    // Flushes; a temporary index is deleted instead
+    public void close() {
+        if (regions == null) {
+            return;
+        }
+
+        if (temporary) {
+            regions = null;
+            chunks = null;
+            header = null;
+
+            try {
+                Files.deleteIfExists(path);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+
+            return;
+        }
+
+        if (dirty) {
+            flush();
+        }
+
+        regions = null;
+        chunks = null;
+        header = null;
+    }
+
+    private void writeHeader(boolean clean, long crc) {
+        ByteBuffer h = header.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+        int flags = (clean ? FLAG_CLEAN : 0) | (hasEmptyKey ? FLAG_EMPTY_KEY : 0) | (hasTombKey ? FLAG_TOMB_KEY : 0);
+
+        h.putShort(6, (short) flags);
+        h.putLong(16, size);
+        h.putLong(24, used);
+        h.putLong(32, tombs);
+        h.putLong(40, crc);
+        h.putInt(HEADER_USED - 4, headerCrc(h));
+    }
+
+    private static int headerCrc(ByteBuffer h) {
+        CRC32C crc = new CRC32C();
+        crc.update(h.duplicate().position(0).limit(HEADER_USED - 4));
+        return (int) crc.getValue();
+    }
+
+    private long dataCrc() {
+        CRC32C crc = new CRC32C();
+
+        for (MappedByteBuffer r : regions) {
+            crc.update(r.duplicate().clear());
+        }
+
+        return crc.getValue();
+    }
+
+    // The header counters can't be trusted after a crash - recount from the slots
+    private void recover() {
+        size = (hasEmptyKey ? 1 : 0) + (hasTombKey ? 1 : 0);
+        used = 0;
+        tombs = 0;
+
+        for (long i = 0; i < capacity; i++) {
+            int v = slot(i);
+
+            if (v == TOMB) {
+                tombs++;
+                used++;
+            } else if (v != EMPTY) {
+                size++;
+                used++;
+            }
+        }
+
+        flush();
+    }
+
+    // Rehashes into a sibling temp file, then renames it over this one
+    private void rehash(long newCap) {
+        Path tmp = path.resolveSibling(path.getFileName() + ".resize");
+
+        try {
+            MappedIntSet next = new MappedIntSet(tmp, false);
+            next.init(newCap);
+
+            for (long i = 0; i < capacity; i++) {
+                int v = slot(i);
+
+                if (v != EMPTY && v != TOMB) {
+                    next.insert(v);
+                }
+            }
+
+            next.hasEmptyKey = hasEmptyKey;
+            next.hasTombKey = hasTombKey;
+            next.size = size;
+            next.flush();
+
+            Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            map();
+            used = next.used;
+            tombs = 0;
+            resizes++;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
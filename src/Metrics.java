@@ -0,0 +1,26 @@
+// Structural counters for the hot paths (probes per lookup, rotations per
+// insert, ...). Off unless the JVM starts with -Dmetrics=true. ENABLED is a
+// static final, so once this class is initialised the JIT folds every
+// `if (Metrics.ENABLED)` guard to a constant and drops the disabled branch -
+// there is no cost when metrics are off.
+class Metrics {
+    static final boolean ENABLED = Boolean.getBoolean("metrics");
+
+    final LatencyHistogram hist = new LatencyHistogram();
+    private long sum;
+
+    // Engines hold null when metrics are off, so nothing is allocated per set
+    static Metrics create() {
+        return ENABLED ? new Metrics() : null;
+    }
+
+    void record(long n) {
+        hist.record(n);
+        sum += n;
+    }
+
+    // Average per operation, times 100 (keeps two decimals in a long column)
+    long per100() {
+        return hist.count() == 0 ? 0 : 100 * sum / hist.count();
+    }
+}
@@ -0,0 +1,186 @@
+import com.sun.management.HotSpotDiagnosticMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.reflect.Array;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.*;
+
+// Retained heap size of everything reachable from a root, JOL-style: walk the
+// object graph by reflection and size each object from HotSpot's layout rules
+// (header, fields packed by size, 8-byte alignment) instead of trusting the
+// hand-written memoryBytes() estimates.
+//
+// Fields of JDK classes (java.util.LinkedList nodes, for one) can only be read
+// with --add-opens java.base/java.util=ALL-UNNAMED. Without it those objects
+// are still counted but not followed, and their classes end up in skipped().
+class ObjectGraph {
+    static final boolean COMPRESSED_OOPS = vmFlag("UseCompressedOops", true);
+    static final boolean COMPRESSED_CLASS_POINTERS = vmFlag("UseCompressedClassPointers", true);
+
+    static final int REF = COMPRESSED_OOPS ? 4 : 8;
+    static final int HEADER = COMPRESSED_CLASS_POINTERS ? 12 : 16;
+    static final int ARRAY_HEADER = COMPRESSED_CLASS_POINTERS ? 16 : 24;
+
+    // Per class: instance size and the reference fields to follow (NOT_OPEN if
+    // the class can't be opened)
+    private static final Map<Class<?>, Long> SHALLOW = new HashMap<>();
+    private static final Map<Class<?>, Field[]> REFS = new HashMap<>();
+    private static final Field[] NOT_OPEN = new Field[0];
+
+    private final Set<String> skipped = new TreeSet<>();
+    private long objects;
+
+    private static boolean vmFlag(String name, boolean fallback) {
+        try {
+            HotSpotDiagnosticMXBean hs = ManagementFactory.getPlatformMXBean(HotSpotDiagnosticMXBean.class);
+            return Boolean.parseBoolean(hs.getVMOption(name).getValue());
+        } catch (RuntimeException e) {
+            return fallback;    // not HotSpot, or the flag doesn't exist
+        }
+    }
+
+    static long align(long bytes) {
+        return (bytes + 7) & ~7L;
+    }
+
+    // Bytes retained by root and everything it reaches (statics excluded)
+    long sizeOf(Object root) {
+        Set<Object> seen = Collections.newSetFromMap(new IdentityHashMap<>());
+        ArrayDeque<Object> stack = new ArrayDeque<>();
+        long total = 0;
+
+        if (root != null) {
+            seen.add(root);
+            stack.push(root);
+        }
+
+        while (!stack.isEmpty()) {
+            Object o = stack.pop();
+            Class<?> c = o.getClass();
+            objects++;
+
+            if (c.isArray()) {
+                Class<?> elem = c.getComponentType();
+                int n = Array.getLength(o);
+                total += align(ARRAY_HEADER + (long) n * slotSize(elem));
+
+                if (!elem.isPrimitive()) {
+                    for (Object e : (Object[]) o) {
+                        if (e != null && !shared(e) && seen.add(e)) {
+                            stack.push(e);
+                        }
+                    }
+                }
+
+                continue;
+            }
+
+            total += shallowSize(c);
+
+            for (Field f : refFields(c)) {
+                Object e;
+
+                try {
+                    e = f.get(o);
+                } catch (IllegalAccessException ex) {
+                    throw new IllegalStateException(ex);
+                }
+
+                if (e != null && !shared(e) && seen.add(e)) {
+                    stack.push(e);
+                }
+            }
+        }
+
+        return total;
+    }
+
+    // Classes and enum constants belong to the JVM, not to whoever references them
+    private static boolean shared(Object o) {
+        return o instanceof Class || o instanceof Enum;
+    }
+
+    // Objects visited by sizeOf so far
+    long objects() {
+        return objects;
+    }
+
+    // Classes whose fields couldn't be read, so their referents were not counted
+    Set<String> skipped() {
+        return skipped;
+    }
+
+    private static int slotSize(Class<?> t) {
+        if (!t.isPrimitive()) {
+            return REF;
+        }
+
+        if (t == long.class || t == double.class) {
+            return 8;
+        }
+
+        if (t == int.class || t == float.class) {
+            return 4;
+        }
+
+        if (t == short.class || t == char.class) {
+            return 2;
+        }
+
+        return 1;   // byte, boolean
+    }
+
+    private static List<Field> instanceFields(Class<?> c) {
+        List<Field> out = new ArrayList<>();
+
+        for (; c != null; c = c.getSuperclass()) {
+            for (Field f : c.getDeclaredFields()) {
+                if (!Modifier.isStatic(f.getModifiers())) {
+                    out.add(f);
+                }
+            }
+        }
+
+        return out;
+    }
+
+    // Header plus every instance field, rounded up to 8. HotSpot packs fields
+    // largest-first into gaps, so this matches its layout except for rare padding.
+    private static long shallowSize(Class<?> c) {
+        return SHALLOW.computeIfAbsent(c, k -> {
+            long bytes = HEADER;
+
+            for (Field f : instanceFields(k)) {
+                bytes += slotSize(f.getType());
+            }
+
+            return align(bytes);
+        });
+    }
+
+    private Field[] refFields(Class<?> c) {
+        Field[] refs = REFS.computeIfAbsent(c, k -> {
+            List<Field> out = new ArrayList<>();
+
+            for (Field f : instanceFields(k)) {
+                if (f.getType().isPrimitive()) {
+                    continue;
+                }
+
+                if (!f.trySetAccessible()) {
+                    return NOT_OPEN;
+                }
+
+                out.add(f);
+            }
+
+            return out.toArray(new Field[0]);
+        });
+
+        if (refs == NOT_OPEN) {
+            skipped.add(c.getName());
+        }
+
+        return refs;
+    }
+}
@@ -0,0 +1,380 @@
+import java.io.*;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.time.Instant;
+import java.util.*;
+
+// Machine-readable benchmark results. Every printed table cell is collected as a
+// one-sample row, and the timed loops add a row with the raw time of every
+// repeat. With -Dout=<file> the rows and the environment are written on exit:
+// JSON if the name ends in .json, CSV otherwise.
+//
+// CSV: "# key=value" environment lines, then
+//   metric,structure,scale,unit,sample,value
+// one line per sample. JSON:
+//   {"environment": {...}, "results": [{"metric": ..., "structure": ...,
+//    "scale": ..., "unit": ..., "samples": [...]}, ...]}
+//
+// Both formats read back with read(); see Compare for diffing two files.
+class Report {
+    static final String OUT = System.getProperty("out");
+
+    static class Row {
+        final String metric, structure, scale, unit;
+        final long[] samples;
+
+        Row(String metric, String structure, String scale, String unit, long[] samples) {
+            this.metric = metric;
+            this.structure = structure;
+            this.scale = scale;
+            this.unit = unit;
+            this.samples = samples;
+        }
+
+        String key() {
+            return metric + " | " + structure + " | " + scale;
+        }
+    }
+
+    final Map<String, String> environment;
+    final List<Row> rows;
+
+    Report(Map<String, String> environment, List<Row> rows) {
+        this.environment = environment;
+        this.rows = rows;
+    }
+
+    private static final List<Row> collected = new ArrayList<>();
+
+    static void samples(String metric, String structure, String scale, String unit, long[] values) {
+        collected.add(new Row(metric, structure, scale, unit, values.clone()));
+    }
+
+    // One row per cell. The unit is the last parenthesised part of the title,
+    // "Search Latency, N=1,000 (ns/op)" -> "ns/op".
+    static void table(String title, long[][] cells, String[] rowNames, String[] colNames) {
+        String metric = title;
+        String unit = "";
+        int open = title.lastIndexOf(" (");
+
+        if (open >= 0 && title.endsWith(")")) {
+            metric = title.substring(0, open);
+            unit = title.substring(open + 2, title.length() - 1);
+        }
+
+        for (int i = 0; i < cells.length; i++) {
+            for (int j = 0; j < cells[i].length; j++) {
+                collected.add(new Row(metric, rowNames[i], colNames[j], unit, new long[] {cells[i][j]}));
+            }
+        }
+    }
+
+    // The Java/OS details Benchmark prints, plus what's needed to reproduce the run
+    static Map<String, String> environment(String[] args) {
+        Map<String, String> env = new LinkedHashMap<>();
+        env.put("java.version", System.getProperty("java.version"));
+        env.put("java.vendor", System.getProperty("java.vendor"));
+        env.put("java.vm.name", System.getProperty("java.vm.name"));
+        env.put("os.name", System.getProperty("os.name"));
+        env.put("os.arch", System.getProperty("os.arch"));
+        env.put("cpus", String.valueOf(Runtime.getRuntime().availableProcessors()));
+        env.put("max.heap.bytes", String.valueOf(Runtime.getRuntime().maxMemory()));
+        env.put("jvm.args", String.join(" ", ManagementFactory.getRuntimeMXBean().getInputArguments()));
+        env.put("args", String.join(" ", args));
+        env.put("repeats", String.valueOf(Benchmark.REPEATS));
+        env.put("workload", Benchmark.workload == null ? "" : Benchmark.workload.name);
+        env.put("timestamp", Instant.now().toString());
+        return env;
+    }
+
+    // Writes everything collected so far to -Dout, if set
+    static void writeIfRequested(String[] args) throws IOException {
+        if (OUT == null) {
+            return;
+        }
+
+        new Report(environment(args), collected).write(Paths.get(OUT));
+        System.out.println();
+        System.out.println("Results written to " + OUT);
+    }
+
+    void write(Path path) throws IOException {
+        try (Writer w = Files.newBufferedWriter(path, StandardCharsets.UTF_8)) {
+            if (path.toString().endsWith(".json")) {
+                writeJson(w);
+            } else {
+                writeCsv(w);
+            }
+        }
+    }
+
+    private void writeCsv(Writer w) throws IOException {
+        for (Map.Entry<String, String> e : environment.entrySet()) {
+            w.write("# " + e.getKey() + "=" + e.getValue() + "\n");
+        }
+
+        w.write("metric,structure,scale,unit,sample,value\n");
+
+        for (Row r : rows) {
+            for (int i = 0; i < r.samples.length; i++) {
+                w.write(csv(r.metric) + "," + csv(r.structure) + "," + csv(r.scale) + "," + csv(r.unit)
+                    + "," + i + "," + r.samples[i] + "\n");
+            }
+        }
+    }
+
+    private void writeJson(Writer w) throws IOException {
+        w.write("{\n  \"environment\": {");
+        String sep = "\n";
+
+        for (Map.Entry<String, String> e : environment.entrySet()) {
+            w.write(sep + "    " + json(e.getKey()) + ": " + json(e.getValue()));
+            sep = ",\n";
+        }
+
+        w.write("\n  },\n  \"results\": [");
+        sep = "\n";
+
+        for (Row r : rows) {
+            StringJoiner samples = new StringJoiner(", ", "[", "]");
+
+            for (long v : r.samples) {
+                samples.add(String.valueOf(v));
+            }
+
+            w.write(sep + "    {\"metric\": " + json(r.metric) + ", \"structure\": " + json(r.structure)
+                + ", \"scale\": " + json(r.scale) + ", \"unit\": " + json(r.unit) + ", \"samples\": " + samples + "}");
+            sep = ",\n";
+        }
+
+        w.write("\n  ]\n}\n");
+    }
+
+    private static String csv(String s) {
+        if (s.indexOf(',') < 0 && s.indexOf('"') < 0) {
+            return s;
+        }
+
+        return '"' + s.replace("\"", "\"\"") + '"';
+    }
+
+    private static String json(String s) {
+        StringBuilder sb = new StringBuilder("\"");
+
+        for (char c : s.toCharArray()) {
+            if (c == '"' || c == '\\') {
+                sb.append('\\').append(c);
+            } else if (c < 0x20) {
+                sb.append(String.format("\\u%04x", (int) c));
+            } else {
+                sb.append(c);
+            }
+        }
+
+        return sb.append('"').toString();
+    }
+
+    // Reads a file written by write(), in either format
+    static Report read(Path path) throws IOException {
+        String text = new String(Files.readAllBytes(path), StandardCharsets.UTF_8);
+        return text.stripLeading().startsWith("{") ? readJson(text) : readCsv(text);
+    }
+
+    private static Report readCsv(String text) {
+        Map<String, String> env = new LinkedHashMap<>();
+        Map<String, List<Long>> samples = new LinkedHashMap<>();
+        Map<String, String[]> ids = new HashMap<>();
+        boolean header = true;
+
+        for (String line : text.split("\n")) {
+            if (line.startsWith("# ")) {
+                int eq = line.indexOf('=');
+                env.put(line.substring(2, eq), line.substring(eq + 1));
+                continue;
+            }
+
+            if (line.isEmpty()) {
+                continue;
+            }
+
+            if (header) {
+                header = false;     // column names
+                continue;
+            }
+
+            List<String> f = splitCsv(line);
+            String[] id = {f.get(0), f.get(1), f.get(2), f.get(3)};
+            String key = String.join("\u0000", id);
+            ids.putIfAbsent(key, id);
+            samples.computeIfAbsent(key, k -> new ArrayList<>()).add(Long.parseLong(f.get(5)));
+        }
+
+        List<Row> rows = new ArrayList<>();
+
+        for (Map.Entry<String, List<Long>> e : samples.entrySet()) {
+            String[] id = ids.get(e.getKey());
+            rows.add(new Row(id[0], id[1], id[2], id[3], e.getValue().stream().mapToLong(Long::longValue).toArray()));
+        }
+
+        return new Report(env, rows);
+    }
+
+    private static List<String> splitCsv(String line) {
+        List<String> out = new ArrayList<>();
+        StringBuilder cur = new StringBuilder();
+        boolean quoted = false;
+
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    cur.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    cur.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                out.add(cur.toString());
+                cur.setLength(0);
+            } else {
+                cur.append(c);
+            }
+        }
+
+        out.add(cur.toString());
+        return out;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Report readJson(String text) {
+        Map<String, Object> root = (Map<String, Object>) new JsonReader(text).value();
+        Map<String, String> env = new LinkedHashMap<>();
+        List<Row> rows = new ArrayList<>();
+
+        for (Map.Entry<String, Object> e : ((Map<String, Object>) root.get("environment")).entrySet()) {
+            env.put(e.getKey(), String.valueOf(e.getValue()));
+        }
+
+        for (Object o : (List<Object>) root.get("results")) {
+            Map<String, Object> r = (Map<String, Object>) o;
+            long[] s = ((List<Object>) r.get("samples")).stream().mapToLong(v -> (Long) v).toArray();
+            rows.add(new Row((String) r.get("metric"), (String) r.get("structure"), (String) r.get("scale"),
+                (String) r.get("unit"), s));
+        }
+
+        return new Report(env, rows);
+    }
+
+    // Just enough JSON for the files above: objects, arrays, strings, integers
+    private static class JsonReader {
+        private final String s;
+        private int i;
+
+        JsonReader(String s) {
+            this.s = s;
+        }
+
+        Object value() {
+            skipSpace();
+            char c = s.charAt(i);
+
+            if (c == '{') {
+                Map<String, Object> m = new LinkedHashMap<>();
+                i++;
+
+                while (next() != '}') {
+                    String k = string();
+                    expect(':');
+                    m.put(k, value());
+
+                    if (next() == ',') {
+                        i++;
+                    }
+                }
+
+                i++;
+                return m;
+            }
+
+            if (c == '[') {
+                List<Object> l = new ArrayList<>();
+                i++;
+
+                while (next() != ']') {
+                    l.add(value());
+
+                    if (next() == ',') {
+                        i++;
+                    }
+                }
+
+                i++;
+                return l;
+            }
+
+            if (c == '"') {
+                return string();
+            }
+
+            int start = i;
+
+            while (i < s.length() && (s.charAt(i) == '-' || Character.isDigit(s.charAt(i)))) {
+                i++;
+            }
+
+            if (start == i) {
+                throw new IllegalArgumentException("Unexpected '" + c + "' at offset " + i);
+            }
+
+            return Long.parseLong(s.substring(start, i));
+        }
+
+        private String string() {
+            expect('"');
+            StringBuilder sb = new StringBuilder();
+
+            while (s.charAt(i) != '"') {
+                char c = s.charAt(i++);
+
+                if (c == '\\') {
+                    c = s.charAt(i++);
+
+                    if (c == 'u') {
+                        c = (char) Integer.parseInt(s.substring(i, i + 4), 16);
+                        i += 4;
+                    }
+                }
+
+                sb.append(c);
+            }
+
+            i++;
+            return sb.toString();
+        }
+
+        private char next() {
+            skipSpace();
+            return s.charAt(i);
+        }
+
+        private void expect(char c) {
+            if (next() != c) {
+                throw new IllegalArgumentException("Expected '" + c + "' at offset " + i);
+            }
+
+            i++;
+        }
+
+        private void skipSpace() {
+            while (i < s.length() && Character.isWhitespace(s.charAt(i))) {
+                i++;
+            }
+        }
+    }
+}
@@ -1,171 +1,354 @@
-class SplayTree {
+import java.util.Map;
+
+// Top-down splay tree (Sleator & Tarjan). Splaying happens on the way down, so
+// nodes need no parent pointer and a splay is a single pass from the root.
+//
+// The policy decides when an access restructures the tree:
+//   ALWAYS        - every insert/contains splays (classic behaviour)
+//   PROBABILISTIC - splay with the given probability, otherwise a plain BST walk
+//   DEPTH         - splay only when the accessed path was deeper than a threshold
+// Read-mostly workloads can use the last two to skip most pointer writes.
+class SplayTree implements IntSet {
+    enum Policy { ALWAYS, PROBABILISTIC, DEPTH }
+
     static class Node {
         int key;
-        Node left, right, parent;
-        
+        Node left, right;
+
         Node(int k) {
             key = k;
         }
     }
 
     private Node root;
+    private int size;
+
+    private final Policy policy;
+    private final int splayOdds;       // splay when next random int < splayOdds (unsigned)
+    private final int depthThreshold;
+    private int seed = 0x9E3779B9;
+
+    private int splayDepth;     // nodes on the path of the last splay
+    private final Metrics containsPath = Metrics.create();
+
+    // Scratch header for top-down splay - its left/right collect the R and L trees
+    private final Node header = new Node(0);
+
+    public SplayTree() {
+        this(Policy.ALWAYS, 1.0, 0);
+    }
+
+    public SplayTree(Policy policy, double probability, int depthThreshold) {
+        if (probability < 0 || probability > 1) {
+            throw new IllegalArgumentException("Splay probability must be in [0, 1]");
+        }
+
+        if (depthThreshold < 0) {
+            throw new IllegalArgumentException("Depth threshold must be non-negative");
+        }
+
+        this.policy = policy;
+        this.splayOdds = (int) Math.round(probability * 0x7FFF_FFFF);
+        this.depthThreshold = depthThreshold;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    // 24 bytes per Node (header, key, two references) plus the splay header node
+    public long memoryBytes() {
+        return 24L * (size + 1);
+    }
+
+    // Nodes on the access path per contains() (the splay path under ALWAYS)
+    public Map<String, Metrics> metrics() {
+        return containsPath == null ? Map.of() : Map.of("path nodes/lookup", containsPath);
+    }
 
     public void insert(int key) {
         if (root == null) {
             root = new Node(key);
+            size++;
             return;
         }
 
+        if (policy == Policy.ALWAYS) {
+            root = splay(root, key);
+
+            if (key == root.key) {
+                return;
+            }
+
+            Node n = new Node(key);
+
+            if (key < root.key) {
+                n.left = root.left;
+                n.right = root;
+                root.left = null;
+            } else {
+                n.right = root.right;
+                n.left = root;
+                root.right = null;
+            }
+
+            root = n;
+            size++;
+            return;
+        }
+
+        // Plain BST insert, then let the policy decide about splaying
         Node z = root, p = null;
-        
+        int depth = 0;
+
         while (z != null) {
             p = z;
-            
+            depth++;
+
             if (key < z.key) {
                 z = z.left;
             } else if (key > z.key) {
                 z = z.right;
             } else {
-                splay(z);
-                return;
+                break;
             }
         }
 
-        Node n = new Node(key);
-        n.parent = p;
-        
-        if (key < p.key) {
-            p.left = n;
-        } else {
-            p.right = n;
-            splay(n);
+        if (z == null) {
+            if (key < p.key) {
+                p.left = new Node(key);
+            } else {
+                p.right = new Node(key);
+            }
+
+            size++;
+        }
+
+        if (shouldSplay(depth)) {
+            root = splay(root, key);
         }
     }
 
     public boolean contains(int key) {
-        Node z = root, last = null;
-        
+        if (root == null) {
+            return false;
+        }
+
+        if (policy == Policy.ALWAYS) {
+            // Misses splay the last node on the path, as before
+            root = splay(root, key);
+
+            if (Metrics.ENABLED) {
+                containsPath.record(splayDepth);
+            }
+
+            return root.key == key;
+        }
+
+        Node z = root;
+        int depth = 0;
+        boolean found = false;
+
         while (z != null) {
-            last = z;
-            
+            depth++;
+
             if (key < z.key) {
                 z = z.left;
-            }
-            else if (key > z.key) {
+            } else if (key > z.key) {
                 z = z.right;
             } else {
-                splay(z); 
-                return true;
+                found = true;
+                break;
             }
         }
-        
-        if (last != null) {
-            splay(last);
+
+        if (Metrics.ENABLED) {
+            containsPath.record(depth);
+        }
+
+        if (shouldSplay(depth)) {
+            root = splay(root, key);
         }
 
-        return false;
+        return found;
     }
 
-    public void DFSSplayTree() {
-        dfs(root);
-        System.out.println();
+    // Same bottom-up build as AVLTree.bulkLoad: sort (or detect sorted input),
+    // merge with the current keys and build a perfectly balanced tree in O(n).
+    // Later accesses reshape it as usual.
+    public void bulkLoad(int[] keys) {
+        int[] sorted = IntSets.sortedUnique(keys);
+
+        if (root != null) {
+            sorted = IntSets.mergeSorted(inOrder(), sorted);
+        }
+
+        root = build(sorted, 0, sorted.length);
+        size = sorted.length;
     }
 
-    private void dfs(Node n) {
-        if (n == null) {
-            return;
+    public void insertAll(int[] keys) {
+        bulkLoad(keys);
+    }
+
+    private static Node build(int[] keys, int lo, int hi) {
+        if (lo >= hi) {
+            return null;
         }
 
-        System.out.print(n.key + " ");
-        dfs(n.left);
-        dfs(n.right);
+        int mid = (lo + hi) >>> 1;
+        Node n = new Node(keys[mid]);
+        n.left = build(keys, lo, mid);
+        n.right = build(keys, mid + 1, hi);
+        return n;
     }
 
-    private void rotateLeft(Node x) {
-        Node y = x.right;
-        
-        if (y == null) {
-            return;
+    // Iterative - a splay tree can be a path of length n after sequential access
+    private int[] inOrder() {
+        int[] out = new int[size];
+        Node[] stack = new Node[size];
+        int sp = 0, i = 0;
+        Node n = root;
+
+        while (n != null || sp > 0) {
+            while (n != null) {
+                stack[sp++] = n;
+                n = n.left;
+            }
+
+            n = stack[--sp];
+            out[i++] = n.key;
+            n = n.right;
         }
 
-        x.right = y.left;
+        return out;
+    }
 
-        if (y.left != null) {
-            y.left.parent = x;
+    // Splays key to the root and joins its subtrees: splaying the left subtree for
+    // key brings its maximum up with no right child, which takes the right subtree.
+    // Deletes always splay, whatever the policy.
+    public boolean remove(int key) {
+        if (root == null) {
+            return false;
         }
 
-        y.parent = x.parent;
+        root = splay(root, key);
+
+        if (root.key != key) {
+            return false;
+        }
 
-        if (x.parent == null) {
-            root = y;
-        } else if (x == x.parent.left) {
-            x.parent.left = y;
+        if (root.left == null) {
+            root = root.right;
         } else {
-            x.parent.right = y;
+            Node right = root.right;
+            root = splay(root.left, key);
+            root.right = right;
         }
 
-        y.left = x;
-        x.parent = y;
+        size--;
+        return true;
     }
 
-    private void rotateRight(Node x) {
-        Node y = x.left;
+    private boolean shouldSplay(int depth) {
+        switch (policy) {
+            case PROBABILISTIC:
+                // xorshift32 - cheap and good enough to pick which accesses splay
+                seed ^= seed << 13;
+                seed ^= seed >>> 17;
+                seed ^= seed << 5;
+                return (seed >>> 1) < splayOdds;
+            case DEPTH:
+                return depth > depthThreshold;
+            default:
+                return true;
+        }
+    }
 
-        if (y == null) {
+    public void DFSSplayTree() {
+        dfs(root);
+        System.out.println();
+    }
+
+    private void dfs(Node n) {
+        if (n == null) {
             return;
         }
 
-        x.left = y.right;
+        System.out.print(n.key + " ");
+        dfs(n.left);
+        dfs(n.right);
+    }
 
-        if (y.right != null) {
-            y.right.parent = x;
-        }
+    // Brings key (or the last node on its search path) to the root. Nodes greater
+    // than key are hung off header.left (the R tree), smaller ones off
+    // header.right (the L tree), and both are reassembled under the new root.
+    private Node splay(Node t, int key) {
+        Node l = header, r = header;
+        header.left = header.right = null;
+        int depth = 1;
 
-        y.parent = x.parent;
+        while (true) {
+            if (key < t.key) {
+                if (t.left == null) {
+                    break;
+                }
 
-        if (x.parent == null) {
-            root = y;
-        } else if (x == x.parent.left) {
-            x.parent.left = y;
-        } else {
-            x.parent.right = y;
-        }
+                if (key < t.left.key) {
+                    // Zig-zig - rotate right
+                    Node y = t.left;
+                    t.left = y.right;
+                    y.right = t;
+                    t = y;
+                    depth++;
 
-        y.right = x;
-        x.parent = y;
-    }
+                    if (t.left == null) {
+                        break;
+                    }
+                }
+
+                // Link right
+                r.left = t;
+                r = t;
+                t = t.left;
+                depth++;
 
-    private void splay(Node x) {
-        
-        while (x.parent != null) {
-            Node p = x.parent;
-            Node g = p.parent;
-            
-            if (g == null) {
-                if (x == p.left) {
-                    rotateRight(p);
-                } else {
-                    rotateLeft(p);
+            } else if (key > t.key) {
+                if (t.right == null) {
+                    break;
                 }
-            
-            } else if ((x == p.left) == (p == g.left)) {
-                if (x == p.left) {
-                    rotateRight(g);
-                    rotateRight(p);
-                } else {
-                    rotateLeft(g);
-                    rotateLeft(p);
+
+                if (key > t.right.key) {
+                    // Zig-zig - rotate left
+                    Node y = t.right;
+                    t.right = y.left;
+                    y.left = t;
+                    t = y;
+                    depth++;
+
+                    if (t.right == null) {
+                        break;
+                    }
                 }
-            
+
+                // Link left
+                l.right = t;
+                l = t;
+                t = t.right;
+                depth++;
+
             } else {
-                if (x == p.left) {
-                    rotateRight(p);
-                    rotateLeft(g);
-                } else {
-                    rotateLeft(p);
-                    rotateRight(g);
-                }
+                break;
             }
         }
+
+        // Assemble
+        l.right = t.left;
+        r.left = t.right;
+        t.left = header.right;
+        t.right = header.left;
+        splayDepth = depth;
+
+        return t;
     }
 }
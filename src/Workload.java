@@ -0,0 +1,251 @@
+import java.io.*;
+import java.nio.file.*;
+import java.util.*;
+
+// Key generators for the benchmark. Each workload produces the insert keys and
+// the lookup stream for one scale; pick one with -Dworkload=<name>:
+//
+//   uniform        shuffled unique keys, half hits / half misses (default)
+//   zipf           lookups follow a Zipf law over the inserted keys (-Dzipf=0.99)
+//   hotspot        a fixed hot set gets most lookups (-DhotFraction=0.1, -DhotProbability=0.9)
+//   workingset     a hot window that moves through the keys in bursts (temporal locality)
+//   sequential     ascending inserts 1..N - worst case for unbalanced insertion
+//   strided        ascending multiples of -Dstride=64; a stride equal to a table's
+//                  size puts every key in one residue class (worst case for key % m)
+//   sorted-random  first half of the inserts ascending, the rest shuffled
+//   trace          replay of a recorded file (-Dtrace=path), lines "I <key>" / "S <key>"
+abstract class Workload {
+    final String name;
+
+    Workload(String name) {
+        this.name = name;
+    }
+
+    abstract int[] insertKeys(int n, long seed) throws IOException;
+
+    int[] searchKeys(int[] inserted, int n, long seed) throws IOException {
+        return Benchmark.halfExistingHalfMissing(inserted, n, seed);
+    }
+
+    static Workload selected() throws IOException {
+        return byName(System.getProperty("workload", "uniform"));
+    }
+
+    static Workload byName(String name) throws IOException {
+        switch (name) {
+            case "uniform":       return new Uniform();
+            case "zipf":          return new Zipf(Double.parseDouble(System.getProperty("zipf", "0.99")));
+            case "hotspot":       return new Hotspot(Double.parseDouble(System.getProperty("hotFraction", "0.1")),
+                                                     Double.parseDouble(System.getProperty("hotProbability", "0.9")));
+            case "workingset":    return new WorkingSet(Double.parseDouble(System.getProperty("hotFraction", "0.1")));
+            case "sequential":    return new Sequential();
+            case "strided":       return new Strided(Integer.getInteger("stride", 64));
+            case "sorted-random": return new SortedThenRandom();
+            case "trace":         return new Trace(Paths.get(System.getProperty("trace", "trace.txt")));
+            default: throw new IllegalArgumentException("Unknown workload: " + name);
+        }
+    }
+
+    static class Uniform extends Workload {
+        Uniform() {
+            super("uniform");
+        }
+
+        int[] insertKeys(int n, long seed) {
+            return Benchmark.randomUniqueInts(n, seed);
+        }
+    }
+
+    // Lookup rank r (0-based) is drawn with probability proportional to 1/(r+1)^s.
+    // Ranks map onto the inserted keys in insertion order, which is already random.
+    static class Zipf extends Workload {
+        final double s;
+
+        Zipf(double s) {
+            super("zipf(" + s + ")");
+            this.s = s;
+        }
+
+        int[] insertKeys(int n, long seed) {
+            return Benchmark.randomUniqueInts(n, seed);
+        }
+
+        int[] searchKeys(int[] inserted, int n, long seed) {
+            int k = inserted.length;
+            double[] cdf = new double[k];
+            double sum = 0;
+
+            for (int r = 0; r < k; r++) {
+                sum += 1.0 / Math.pow(r + 1, s);
+                cdf[r] = sum;
+            }
+
+            Random rnd = new Random(seed);
+            int[] queries = new int[n];
+
+            for (int i = 0; i < n; i++) {
+                int r = Arrays.binarySearch(cdf, rnd.nextDouble() * sum);
+                queries[i] = inserted[Math.min(k - 1, r < 0 ? -r - 1 : r)];
+            }
+
+            return queries;
+        }
+    }
+
+    static class Hotspot extends Workload {
+        final double hotFraction, hotProbability;
+
+        Hotspot(double hotFraction, double hotProbability) {
+            super("hotspot(" + hotFraction + "/" + hotProbability + ")");
+            this.hotFraction = hotFraction;
+            this.hotProbability = hotProbability;
+        }
+
+        int[] insertKeys(int n, long seed) {
+            return Benchmark.randomUniqueInts(n, seed);
+        }
+
+        // hotProbability of the lookups hit a fixed hot set (the first hotFraction
+        // of the inserted keys), the rest are uniform over all inserted keys
+        int[] searchKeys(int[] inserted, int n, long seed) {
+            Random rnd = new Random(seed);
+            int hot = Math.max(1, (int) (inserted.length * hotFraction));
+            int[] queries = new int[n];
+
+            for (int i = 0; i < n; i++) {
+                int idx = rnd.nextDouble() < hotProbability ? rnd.nextInt(hot) : rnd.nextInt(inserted.length);
+                queries[i] = inserted[idx];
+            }
+
+            return queries;
+        }
+    }
+
+    // Bursts of temporal locality - lookups stay inside a window of hot keys that
+    // jumps to a new random position every `burst` queries.
+    static class WorkingSet extends Workload {
+        final double hotFraction;
+
+        WorkingSet(double hotFraction) {
+            super("workingset(" + hotFraction + ")");
+            this.hotFraction = hotFraction;
+        }
+
+        int[] insertKeys(int n, long seed) {
+            return Benchmark.randomUniqueInts(n, seed);
+        }
+
+        int[] searchKeys(int[] inserted, int n, long seed) {
+            Random rnd = new Random(seed);
+            int k = inserted.length;
+            int window = Math.max(1, (int) (k * hotFraction));
+            int burst = Math.max(1, n / 20);
+            int start = 0;
+            int[] queries = new int[n];
+
+            for (int i = 0; i < n; i++) {
+                if (i % burst == 0) {
+                    start = rnd.nextInt(Math.max(1, k - window + 1));
+                }
+
+                queries[i] = inserted[start + rnd.nextInt(Math.min(window, k))];
+            }
+
+            return queries;
+        }
+    }
+
+    static class Sequential extends Workload {
+        Sequential() {
+            super("sequential");
+        }
+
+        int[] insertKeys(int n, long seed) {
+            int[] keys = new int[n];
+
+            for (int i = 0; i < n; i++) {
+                keys[i] = i + 1;
+            }
+
+            return keys;
+        }
+    }
+
+    static class Strided extends Workload {
+        final int stride;
+
+        Strided(int stride) {
+            super("strided(" + stride + ")");
+            this.stride = stride;
+        }
+
+        int[] insertKeys(int n, long seed) {
+            if ((long) stride * n > Integer.MAX_VALUE) {
+                throw new IllegalArgumentException("Stride " + stride + " x " + n + " keys overflows an int");
+            }
+
+            int[] keys = new int[n];
+
+            for (int i = 0; i < n; i++) {
+                keys[i] = stride * (i + 1);
+            }
+
+            return keys;
+        }
+    }
+
+    static class SortedThenRandom extends Workload {
+        SortedThenRandom() {
+            super("sorted-random");
+        }
+
+        int[] insertKeys(int n, long seed) {
+            int[] keys = Benchmark.randomUniqueInts(n, seed);
+            Arrays.sort(keys, 0, n / 2);
+            return keys;
+        }
+    }
+
+    // Replays a recorded trace. Insert ("I") and search ("S") lines are split into
+    // the two streams in file order and cut to each scale's N.
+    static class Trace extends Workload {
+        final KeyFile.IntList inserts = new KeyFile.IntList(1024);
+        final KeyFile.IntList searches = new KeyFile.IntList(1024);
+
+        Trace(Path path) throws IOException {
+            super("trace(" + path.getFileName() + ")");
+
+            try (BufferedReader br = Files.newBufferedReader(path)) {
+                String line;
+
+                while ((line = br.readLine()) != null) {
+                    line = line.trim();
+
+                    if (line.isEmpty() || line.startsWith("#")) {
+                        continue;
+                    }
+
+                    String[] parts = line.split("\\s+");
+
+                    if (parts.length != 2) {
+                        throw new IOException("Bad trace line: " + line);
+                    }
+
+                    switch (Character.toUpperCase(parts[0].charAt(0))) {
+                        case 'I': inserts.add(Integer.parseInt(parts[1])); break;
+                        case 'S': searches.add(Integer.parseInt(parts[1])); break;
+                        default: throw new IOException("Bad trace op: " + line);
+                    }
+                }
+            }
+        }
+
+        int[] insertKeys(int n, long seed) {
+            return Arrays.copyOf(inserts.a, Math.min(n, inserts.size));
+        }
+
+        int[] searchKeys(int[] inserted, int n, long seed) {
+            return Arrays.copyOf(searches.a, Math.min(n, searches.size));
+        }
+    }
+}